@@ -55,6 +55,8 @@ public final class ModOptions {
 	protected static final String CONFIG_VILLAGE_STRUCTURE_WEIGHT = "Village Structure Weight";
 	protected static final String CONFIG_VILLAGE_STRUCTURE_COUNT = "Village Structure Count";
 	protected static final String CONFIG_ENABLE_ORE_DICTIONARY_SCAN = "Enable Forge OreDictionary Scan";
+	protected static final String CONFIG_ENABLE_RECIPE_CACHE = "Enable Recipe Cache";
+	protected static final String CONFIG_RECIPE_SCAN_THREADS = "Recipe Scan Threads";
 
 	protected static final String CATEGORY_RUBBLE = "recycle.rubble";
 	protected static final String CONFIG_RUBBLE_PILE_DISABLE = "Disable";
@@ -89,6 +91,13 @@ public final class ModOptions {
 	protected static final String CONFIG_VENDING_BLOCK_PIPE_CONNECTION = "Disallow Pipe Connection";
 	protected static final String CONFIG_BATTERY_RACK_TRANSFER = "RF Transfer per Tick";
 	protected static final String CONFIG_BONEMEAL_PRODUCED = "Bone Meal Produced";
+	protected static final String CONFIG_SCRAP_PLAN_CACHE_SIZE = "Scrap Plan Cache Size";
+	protected static final String CONFIG_CONTEXT_CACHE_SIZE = "Context Cache Size";
+	protected static final String CONFIG_RECYCLER_BATCH_SIZE = "Operations per Tick";
+	protected static final String CONFIG_ENABLE_TICK_SCHEDULER = "Enable Central Tick Scheduler";
+	protected static final String CONFIG_TICK_INTERVAL = "Scheduler Tick Interval";
+	protected static final String CONFIG_INVENTORY_DIRTY_INTERVAL = "Inventory Save Interval";
+	protected static final String CONFIG_STATUS_BROADCAST_INTERVAL = "Status Update Interval";
 
 	protected static final String CONFIG_ENABLE_RECIPE_LOGGING = "Enable Recipe Logging";
 	protected static final String CONFIG_ENABLE_DEBUG_LOGGING = "Enable Debug Logging";
@@ -133,9 +142,14 @@ public final class ModOptions {
 	protected static boolean enableBreedingChanges = true;
 	protected static boolean enableTooltips = true;
 	protected static int scrapBoxBonus = 1;
+	protected static int scrapPlanCacheSize = 512;
+	protected static int contextCacheSize = 6;
+	protected static int recyclerBatchSize = 1;
 	protected static boolean enableAssessorEnhancedLore = true;
 	protected static boolean enableScrapboxSpawn = true;
 	protected static boolean enableForgeOreDictionaryScan = true;
+	protected static boolean enableRecipeCache = true;
+	protected static int recipeScanThreads = 0;
 	protected static int wormDropChance = 20;
 	protected static int wormDropChanceRain = 8;
 	protected static boolean disableAnvilRepair = false;
@@ -173,6 +187,14 @@ public final class ModOptions {
 	protected static int batteryRackTransfer = 80;
 	protected static int bonemealProduced = 2;
 
+	protected static boolean enableTickScheduler = false;
+	protected static int recyclerTickInterval = 1;
+	protected static int composterTickInterval = 1;
+	protected static int assessorTickInterval = 1;
+	protected static int batteryRackTickInterval = 1;
+	protected static int inventoryDirtyInterval = 5;
+	protected static int statusBroadcastInterval = 10;
+
 	public static void load(final Configuration config) {
 
 		String comment = "Enables/disables debug logging of the mod";
@@ -277,6 +299,18 @@ public final class ModOptions {
 		comment = "The bonus amount of scrap a scrapbox will get when processed with Core: Extraction";
 		scrapBoxBonus = config.getInt(CONFIG_SCRAPBOX_BONUS, CATEGORY_MACHINES_RECYCLER, scrapBoxBonus, 0, 4, comment);
 
+		comment = "Number of scrapping plans shared between all recyclers and assessors on the server";
+		scrapPlanCacheSize = config.getInt(CONFIG_SCRAP_PLAN_CACHE_SIZE, CATEGORY_MACHINES_RECYCLER, scrapPlanCacheSize,
+				16, 65536, comment);
+
+		comment = "Number of recent scrapping contexts each recycler remembers";
+		contextCacheSize = config.getInt(CONFIG_CONTEXT_CACHE_SIZE, CATEGORY_MACHINES_RECYCLER, contextCacheSize, 1, 64,
+				comment);
+
+		comment = "Maximum number of operations a recycler completes in one tick when stored energy and input allow";
+		recyclerBatchSize = config.getInt(CONFIG_RECYCLER_BATCH_SIZE, CATEGORY_MACHINES_RECYCLER, recyclerBatchSize, 1,
+				64, comment);
+
 		comment = "Controls whether a Scrap Box will spawn items on right click";
 		enableScrapboxSpawn = config.getBoolean(CONFIG_ENABLE_SCRAPBOX_SPAWNING, CATEGORY_GENERAL, enableScrapboxSpawn,
 				comment);
@@ -285,6 +319,14 @@ public final class ModOptions {
 		enableForgeOreDictionaryScan = config.getBoolean(CONFIG_ENABLE_ORE_DICTIONARY_SCAN, CATEGORY_GENERAL,
 				enableForgeOreDictionaryScan, comment);
 
+		comment = "Enable/Disable caching of the crafting recipe scan between runs";
+		enableRecipeCache = config.getBoolean(CONFIG_ENABLE_RECIPE_CACHE, CATEGORY_GENERAL, enableRecipeCache,
+				comment);
+
+		comment = "Number of threads used to decompose recipes during startup (0 = one per processor, 1 = disable)";
+		recipeScanThreads = config.getInt(CONFIG_RECIPE_SCAN_THREADS, CATEGORY_GENERAL, recipeScanThreads, 0, 64,
+				comment);
+
 		comment = "Number of ticks a Paper Log will burn in a furnace";
 		paperLogFuelSetting = config.getInt(CONFIG_PAPER_LOG_FUEL_SETTING, CATEGORY_FUEL_SETTINGS, paperLogFuelSetting,
 				0, Integer.MAX_VALUE, comment);
@@ -393,6 +435,28 @@ public final class ModOptions {
 		batteryRackTransfer = config.getInt(CONFIG_BATTERY_RACK_TRANSFER, CATEGORY_MACHINES_BATTERY_RACK,
 				batteryRackTransfer, 0, Integer.MAX_VALUE, comment);
 
+		comment = "Tick machines from a single world tick handler rather than individually";
+		enableTickScheduler = config.getBoolean(CONFIG_ENABLE_TICK_SCHEDULER, CATEGORY_GENERAL, enableTickScheduler,
+				comment);
+
+		comment = "Number of ticks between updates when the central tick scheduler is enabled";
+		recyclerTickInterval = config.getInt(CONFIG_TICK_INTERVAL, CATEGORY_MACHINES_RECYCLER, recyclerTickInterval, 1,
+				20, comment);
+		composterTickInterval = config.getInt(CONFIG_TICK_INTERVAL, CATEGORY_MACHINES_COMPOSTER,
+				composterTickInterval, 1, 20, comment);
+		assessorTickInterval = config.getInt(CONFIG_TICK_INTERVAL, CATEGORY_MACHINES_ASSESSOR, assessorTickInterval, 1,
+				20, comment);
+		batteryRackTickInterval = config.getInt(CONFIG_TICK_INTERVAL, CATEGORY_MACHINES_BATTERY_RACK,
+				batteryRackTickInterval, 1, 20, comment);
+
+		comment = "Minimum number of ticks between a machine flagging inventory changes for save and comparator updates";
+		inventoryDirtyInterval = config.getInt(CONFIG_INVENTORY_DIRTY_INTERVAL, CATEGORY_GENERAL,
+				inventoryDirtyInterval, 1, 100, comment);
+
+		comment = "Minimum number of ticks between machine status updates sent to clients";
+		statusBroadcastInterval = config.getInt(CONFIG_STATUS_BROADCAST_INTERVAL, CATEGORY_GENERAL,
+				statusBroadcastInterval, 1, 100, comment);
+
 		comment = "Enable crafting of Energetic Redstone Dust using Uranium dust";
 		energeticRedstoneUraniumCrafting = config.getBoolean(CONFIG_ENABLE_URANIUM_RECIPE, CATEGORY_ENERGETIC_REDSTONE,
 				energeticRedstoneUraniumCrafting, comment);
@@ -475,6 +539,18 @@ public final class ModOptions {
 		return scrapBoxBonus;
 	}
 
+	public static int getScrapPlanCacheSize() {
+		return scrapPlanCacheSize;
+	}
+
+	public static int getContextCacheSize() {
+		return contextCacheSize;
+	}
+
+	public static int getRecyclerBatchSize() {
+		return recyclerBatchSize;
+	}
+
 	public static boolean getEnableAssessorEnhancedLore() {
 		return enableAssessorEnhancedLore;
 	}
@@ -495,6 +571,14 @@ public final class ModOptions {
 		return enableForgeOreDictionaryScan;
 	}
 
+	public static boolean getEnableRecipeCache() {
+		return enableRecipeCache;
+	}
+
+	public static int getRecipeScanThreads() {
+		return recipeScanThreads > 0 ? recipeScanThreads : Runtime.getRuntime().availableProcessors();
+	}
+
 	public static int getWormDropChance() {
 		return wormDropChance;
 	}
@@ -630,4 +714,32 @@ public final class ModOptions {
 	public static boolean getEnableBreedingChanges() {
 		return enableBreedingChanges;
 	}
+
+	public static boolean getEnableTickScheduler() {
+		return enableTickScheduler;
+	}
+
+	public static int getRecyclerTickInterval() {
+		return recyclerTickInterval;
+	}
+
+	public static int getComposterTickInterval() {
+		return composterTickInterval;
+	}
+
+	public static int getAssessorTickInterval() {
+		return assessorTickInterval;
+	}
+
+	public static int getBatteryRackTickInterval() {
+		return batteryRackTickInterval;
+	}
+
+	public static int getInventoryDirtyInterval() {
+		return inventoryDirtyInterval;
+	}
+
+	public static int getStatusBroadcastInterval() {
+		return statusBroadcastInterval;
+	}
 }
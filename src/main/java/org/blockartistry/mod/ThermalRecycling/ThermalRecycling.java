@@ -46,6 +46,7 @@ public final class ThermalRecycling {
 	public static final String DEPENDENCIES = "required-after:ThermalExpansion;after:*;";
 
 	public static final String OUTPUT_FILE = "ThermalRecycling.log";
+	public static final String CACHE_FILE = "ThermalRecycling.cache";
 
 	@Instance(MOD_ID)
 	protected static ThermalRecycling instance;
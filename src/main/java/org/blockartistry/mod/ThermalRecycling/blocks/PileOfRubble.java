@@ -30,7 +30,7 @@ import org.blockartistry.mod.ThermalRecycling.CreativeTabManager;
 import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.ThermalRecycling;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import cpw.mods.fml.common.registry.GameRegistry;
 import cpw.mods.fml.relauncher.Side;
@@ -46,7 +46,7 @@ import net.minecraftforge.common.ChestGenHooks;
 
 public final class PileOfRubble extends Block {
 
-	private static final Random random = XorShiftRandom.shared;
+	private static final Random random = SplitMixRandom.shared;
 	private static final String CHEST_PILE_OF_RUBBLE = "pileOfRubble";
 	private static final ChestGenHooks rubbleContent = ChestGenHooks
 			.getInfo(CHEST_PILE_OF_RUBBLE);
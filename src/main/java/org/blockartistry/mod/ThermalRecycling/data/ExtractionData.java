@@ -46,6 +46,9 @@ public class ExtractionData {
 
 	public static void freeze() {
 		recipes = ImmutableMap.copyOf(recipes);
+		for (final ExtractionData data : recipes.values())
+			if (data.extraction != null)
+				data.extraction.freeze();
 	}
 
 	protected ExtractionData() {
@@ -27,11 +27,13 @@ package org.blockartistry.mod.ThermalRecycling.data;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.blockartistry.mod.ThermalRecycling.ItemManager;
 import org.blockartistry.mod.ThermalRecycling.items.Material;
 import org.blockartistry.mod.ThermalRecycling.support.SupportedMod;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackIndex;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackKey;
 import org.blockartistry.mod.ThermalRecycling.util.OreDictionaryHelper;
 
@@ -55,6 +57,12 @@ public final class ItemData {
 
 	private static Map<ItemStackKey, ItemData> cache = new HashMap<ItemStackKey, ItemData>(1024);
 
+	// Built when the tables are frozen. The derived index holds a
+	// preallocated entry for each generic record that is handed out
+	// when a specific sub-type does not have its own entry.
+	private static ItemStackIndex<ItemData> index = null;
+	private static ItemStackIndex<ItemData> derived = null;
+
 	private final ItemStack stack;
 	private ScrapValue value;
 	private CompostIngredient compostValue;
@@ -65,8 +73,32 @@ public final class ItemData {
 	private boolean isBlockedFromScrapping;
 	private boolean isBlockedFromExtraction;
 
+	// Entries handed out after freeze are shared between callers, and
+	// generic ones between every sub-type of an Item, so they must not
+	// change. Failing here, before anything is touched, keeps a rejected
+	// update from corrupting them.
+	private static void checkNotFrozen() {
+		if (index != null)
+			throw new UnsupportedOperationException("ItemData is frozen");
+	}
+
 	public static void freeze() {
 		cache = ImmutableMap.copyOf(cache);
+
+		final ItemStackIndex<ItemData> specific = new ItemStackIndex<ItemData>(cache.size());
+		final ItemStackIndex<ItemData> generic = new ItemStackIndex<ItemData>(cache.size());
+
+		for (final Entry<ItemStackKey, ItemData> e : cache.entrySet()) {
+			final ItemStackKey key = e.getKey();
+			final ItemData data = e.getValue();
+			specific.put(key.getItem(), key.getMeta(), data);
+
+			if (data.isGeneric && key.getItem().getHasSubtypes())
+				generic.put(key.getItem(), key.getMeta(), new ItemData(data));
+		}
+
+		index = specific;
+		derived = generic;
 	}
 
 	private static boolean exceptionalFood(final Item item) {
@@ -136,6 +168,13 @@ public final class ItemData {
 				data.isBlockedFromExtraction);
 	}
 
+	// Flyweight for a generic entry - represents any sub-type
+	// that does not have an entry of its own.
+	private ItemData(final ItemData data) {
+		this(data.stack, data);
+		this.isGeneric = false;
+	}
+
 	private ItemData(final ItemStack stack) {
 		this(stack, DEFAULT_SCRAP_VALUE, DEFAULT_COMPOST_INGREDIENT, false, false, false, true);
 	}
@@ -163,6 +202,7 @@ public final class ItemData {
 	}
 
 	public ItemData setValue(final ScrapValue value) {
+		checkNotFrozen();
 		this.value = value;
 		return this;
 	}
@@ -176,11 +216,13 @@ public final class ItemData {
 	}
 
 	public ItemData setCompostIngredientValue(final CompostIngredient value) {
+		checkNotFrozen();
 		this.compostValue = value;
 		return this;
 	}
 
 	public ItemData setIgnoreRecipe(final boolean flag) {
+		checkNotFrozen();
 		this.ignoreRecipe = flag;
 		return this;
 	}
@@ -190,6 +232,7 @@ public final class ItemData {
 	}
 
 	public ItemData setScrubFromOutput(final boolean flag) {
+		checkNotFrozen();
 		this.scrubFromOutput = flag;
 		return this;
 	}
@@ -215,11 +258,13 @@ public final class ItemData {
 	}
 
 	public ItemData setBlockedFromScrapping(final boolean flag) {
+		checkNotFrozen();
 		isBlockedFromScrapping = flag;
 		return this;
 	}
 
 	public ItemData setBlockedFromExtraction(final boolean flag) {
+		checkNotFrozen();
 		isBlockedFromExtraction = flag;
 		return this;
 	}
@@ -247,6 +292,24 @@ public final class ItemData {
 	public static ItemData get(final ItemStack stack) {
 		assert stack != null;
 
+		// Once frozen the setters refuse changes so entries can be
+		// shared and there is no need to create a wrapper on a
+		// generic hit.
+		if (index != null) {
+			final ItemData data = index.get(stack);
+			if (data != null)
+				return data;
+			// A sub-type without its own entry gets the flyweight
+			// for the Item's generic record.
+			final ItemData generic = derived.getGeneric(stack.getItem());
+			if (generic != null)
+				return generic;
+			// Every Item in the registry has a generic record from
+			// the static initializer so only an Item registered
+			// after it ran gets here.
+			return new ItemData(stack);
+		}
+
 		// Highly specific match
 		ItemData data = cache.get(ItemStackKey.getCachedKey(stack));
 		if (data != null)
@@ -24,13 +24,14 @@
 
 package org.blockartistry.mod.ThermalRecycling.data;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import org.blockartistry.mod.ThermalRecycling.ItemManager;
 import org.blockartistry.mod.ThermalRecycling.ModLog;
@@ -39,18 +40,18 @@ import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackKey;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackWeightTable;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackWeightTable.ItemStackItem;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackWeightTable.Kind;
 import org.blockartistry.mod.ThermalRecycling.util.MyUtils;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 import org.blockartistry.mod.ThermalRecycling.items.CoreType;
 import org.blockartistry.mod.ThermalRecycling.items.ItemLevel;
 
-import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
-import net.minecraft.util.StatCollector;
 
 /**
  * Base class from which all scrap handlers are created. Handlers are used by
@@ -61,18 +62,6 @@ import net.minecraft.util.StatCollector;
  */
 public class ScrapHandler {
 
-	// Cache strings for performance
-	protected static final StringBuilder builder = new StringBuilder(32);
-	protected static final String loreDestroy = StatCollector.translateToLocal("msg.ScrapPreview.destroy");
-	protected static final String loreKeep = StatCollector.translateToLocal("msg.ScrapPreview.keep");
-	protected static final String loreDust = StatCollector.translateToLocal("msg.ScrapPreview.dust");
-	protected static final String loreDebris = StatCollector.translateToLocal("item.Debris.debris.name");
-	protected static final String lorePoorScrap = StatCollector.translateToLocal("item.RecyclingScrap.poor.name");
-	protected static final String loreStandardScrap = StatCollector.translateToLocal("item.RecyclingScrap.standard.name");
-	protected static final String loreSuperiorScrap = StatCollector.translateToLocal("item.RecyclingScrap.superior.name");
-	
-	protected static final DecimalFormat doubleFormatter = new DecimalFormat("0.0% ");
-	
 	protected static final int EXPERIENCE_PER_BOTTLE = ModOptions.getXpBottleValue();
 	
 	public static class PreviewResult {
@@ -89,7 +78,6 @@ public class ScrapHandler {
 	public static class ScrappingContext {
 		
 		public final ItemStack toProcess;
-		public final ItemStack core;
 		public CoreType coreType;
 		public ItemLevel coreLevel;
 		public boolean shouldJam;
@@ -102,13 +90,17 @@ public class ScrapHandler {
 		public ExtractionData extractData = null;
 		public List<ItemStack> recipeOutput = null;
 		public ItemStackWeightTable[] tables = null;
+		
+		// Result of a dust outcome for each recipe output; null
+		// entries have no dust form and are lost.
+		public ItemStack[] dustOutput = null;
+		
 
 		public ScrappingContext(final ItemStack core, final ItemStack stack) {
 			this(core, stack, null);
 		}
 
 		public ScrappingContext(final ItemStack core, final ItemStack stack, final RecipeData recipe) {
-			this.core = core;
 			this.coreType = CoreType.getType(core);
 			this.coreLevel = coreType == CoreType.NONE ? ItemLevel.BASIC : ItemLevel.getLevel(core);
 			this.handler = ScrapHandler.getHandler(stack);
@@ -127,18 +119,6 @@ public class ScrapHandler {
 			}
 		}
 		
-		/**
-		 * Determines if the ScrappingContext can be reused based on the core
-		 * and stack references provided.
-		 * 
-		 * @param core Currently installed core in the machine
-		 * @param stack The ItemStack being processed
-		 * @return true if the context is compatible, false otherwise
-		 */
-		public boolean canReuse(final ItemStack core, final ItemStack stack) {
-			return ItemStack.areItemStacksEqual(this.core, core) && ItemStack.areItemStacksEqual(this.toProcess, stack);
-		}
-		
 		/**
 		 * Returns a list of components that result from the scrap
 		 * operation.  The parameters of the operation are based on
@@ -151,6 +131,29 @@ public class ScrapHandler {
 			return handler.scrapItems(this);
 		}
 		
+		/**
+		 * Same as scrap() but draws from the random stream provided,
+		 * typically the one owned by the machine doing the work.
+		 * 
+		 * @param random Random stream to use for the rolls
+		 * @return List of 0 or more ItemStacks that result from scrapping
+		 */
+		public List<ItemStack> scrap(final Random random) {
+			return handler.scrapItems(this, random);
+		}
+		
+		/**
+		 * Same as scrap(Random) but rolls for several operations at
+		 * once.  The result is the combined output of all of them.
+		 * 
+		 * @param random Random stream to use for the rolls
+		 * @param operations Number of operations to perform
+		 * @return List of 0 or more ItemStacks that result from scrapping
+		 */
+		public List<ItemStack> scrap(final Random random, final int operations) {
+			return handler.scrapItems(this, random, operations);
+		}
+		
 		/**
 		 * Simulates a scrap operation based on the information in the
 		 * ScrappingContext.  Primarly this information is used by
@@ -163,6 +166,14 @@ public class ScrapHandler {
 		}
 	}
 
+	// Scratch tally of weight table results used by scrapItems()
+	private static final ThreadLocal<int[]> histogram = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[16];
+		}
+	};
+
 	private static Map<ItemStackKey, ScrapHandler> handlers = new HashMap<ItemStackKey, ScrapHandler>();
 	private static final ScrapHandler generic = new ScrapHandler();
 	
@@ -335,6 +346,15 @@ public class ScrapHandler {
 					ctx.tables[i] = ScrappingTables.getTable(ctx.coreType, ctx.coreLevel, sv).get();;
 				}
 			}
+			
+			// Resolve what a dust outcome turns into up front so the
+			// scrap loop doesn't go to the OreDictionary.
+			ctx.dustOutput = new ItemStack[ctx.recipeOutput.size()];
+			for(int i = 0; i < ctx.dustOutput.length; i++) {
+				final ItemStack stack = ctx.recipeOutput.get(i).copy();
+				stack.stackSize = 1;
+				ctx.dustOutput[i] = ItemStackHelper.convertToDustIfPossible(stack).orNull();
+			}
 		}
 	}
 
@@ -347,10 +367,39 @@ public class ScrapHandler {
 	 * @throws Exception 
 	 */
 	public List<ItemStack> scrapItems(final ScrappingContext ctx) {
+		return scrapItems(ctx, SplitMixRandom.shared);
+	}
+
+	/**
+	 * Scraps items based on the incoming context using the random
+	 * stream provided.
+	 * 
+	 * @param ctx Context of the operation
+	 * @param random Random stream to use for the rolls
+	 * @return Result of the scrap operation.
+	 */
+	public List<ItemStack> scrapItems(final ScrappingContext ctx, final Random random) {
+		return scrapItems(ctx, random, 1);
+	}
+
+	/**
+	 * Scraps items for a number of operations in a single pass.  The
+	 * rolls for each output are independent so they are simply
+	 * combined, and the result is merged as it is built.
+	 * 
+	 * @param ctx Context of the operation
+	 * @param random Random stream to use for the rolls
+	 * @param operations Number of operations to perform
+	 * @return Result of the scrap operations.
+	 */
+	public List<ItemStack> scrapItems(final ScrappingContext ctx, final Random random, final int operations) {
 		
 		// Initialize the context as needed
 		initializeContext(ctx);
-		
+
+		// Contexts are shared between machines so the tally goes
+		// into a scratch buffer owned by the thread.
+		int[] counts = histogram.get();
 		final List<ItemStack> result = new ArrayList<ItemStack>();
 
 		final int dataLength = ctx.recipeOutput.size();
@@ -358,32 +407,84 @@ public class ScrapHandler {
 
 			final ItemStack target = ctx.recipeOutput.get(i);
 			final ItemStackWeightTable t = ctx.tables[i];
-			
-			for (int count = 0; count < target.stackSize; count++) {
-
-				Optional<ItemStack> cupieDoll = t.nextStack();
-
-				if (cupieDoll.isPresent()) {
-
-					if (ScrappingTables.keepIt(cupieDoll.get())) {
-						cupieDoll = Optional.of(target.copy());
-						cupieDoll.get().stackSize = 1;
-					} else if (ScrappingTables.dustIt(cupieDoll.get())) {
-						cupieDoll = Optional.of(target.copy());
-						cupieDoll.get().stackSize = 1;
-						cupieDoll = ItemStackHelper.convertToDustIfPossible(cupieDoll.get());
-					}
-					
-					// Maybe be null in the destroy case
-					if(cupieDoll.isPresent()) {
-						result.add(cupieDoll.get());
-					}
+			final List<ItemStackItem> entries = t.getEntries();
+			final int entryCount = entries.size();
+
+			if (counts.length < entryCount) {
+				counts = new int[entryCount];
+				histogram.set(counts);
+			}
+
+			// Tally the rolls first.  Nothing is allocated until the
+			// results are known.
+			Arrays.fill(counts, 0, entryCount, 0);
+			try {
+				t.next(target.stackSize * operations, counts, random);
+			} catch (Exception e) {
+				ModLog.warn(e.getMessage());
+				continue;
+			}
+
+			// Materialize one stack per distinct outcome
+			for (int j = 0; j < entryCount; j++) {
+
+				final int count = counts[j];
+				if (count == 0)
+					continue;
+
+				final ItemStackItem entry = entries.get(j);
+				final ItemStack stack;
+				switch (entry.kind) {
+				case KEEP:
+					stack = target;
+					break;
+				case DUST:
+					stack = ctx.dustOutput[i];
+					break;
+				case ITEM:
+					stack = entry.getStack();
+					break;
+				default:
+					stack = null;
+					break;
+				}
+
+				// Null in the destroy case, or if there is no dust
+				if (stack != null) {
+					final int quantity = entry.kind == Kind.ITEM ? stack.stackSize : 1;
+					addToResult(result, stack, quantity * count);
 				}
 			}
 		}
 
 		return result;
 	}
+
+	/**
+	 * Adds the quantity of the ItemStack to the result list, topping up
+	 * matching stacks that are already present before starting new ones.
+	 * The list is kept coalesced so it does not need another pass.
+	 */
+	protected static void addToResult(final List<ItemStack> result, final ItemStack stack, int quantity) {
+
+		final int maxStackSize = stack.getMaxStackSize();
+
+		for (int i = 0; i < result.size() && quantity > 0; i++) {
+			final ItemStack target = result.get(i);
+			if (target.stackSize < maxStackSize && ItemStackHelper.areEqual(target, stack)) {
+				final int hold = Math.min(maxStackSize - target.stackSize, quantity);
+				target.stackSize += hold;
+				quantity -= hold;
+			}
+		}
+
+		while (quantity > 0) {
+			final ItemStack newStack = stack.copy();
+			newStack.stackSize = Math.min(maxStackSize, quantity);
+			quantity -= newStack.stackSize;
+			result.add(newStack);
+		}
+	}
 	
 	
 	/**
@@ -401,44 +502,8 @@ public class ScrapHandler {
 	}
 
 	protected void decorateStacks(final ScrappingContext ctx, final List<ItemStack> stack) {
-		
-		for(int i = 0; i < stack.size(); i++) {
-			
-			final ItemStack item = stack.get(i);
-			final ItemStackWeightTable t = ctx.tables[i];
-			final double totalWeight = t.getTotalWeight();
-
-			final List<String> lore = new ArrayList<String>();
-
-			for (final ItemStackItem w : t.getEntries()) {
-
-				builder.setLength(0);;
-				final ItemStack temp = w.getStack();
-				builder.append(doubleFormatter.format(w.itemWeight / totalWeight));
-				
-				if(ScrappingTables.destroyIt(temp))
-					builder.append(loreDestroy);
-				else if(ScrappingTables.keepIt(temp))
-					builder.append(loreKeep);
-				else if(ScrappingTables.dustIt(temp))
-					builder.append(loreDust);
-				else if(temp.isItemEqual(ScrappingTables.debris))
-					builder.append(loreDebris);
-				else if(temp.isItemEqual(ScrappingTables.poorScrap))
-					builder.append(lorePoorScrap);
-				else if(temp.isItemEqual(ScrappingTables.standardScrap))
-					builder.append(loreStandardScrap);
-				else if(temp.isItemEqual(ScrappingTables.superiorScrap))
-					builder.append(loreSuperiorScrap);
-				else
-					builder.append("UNKNOWN");
-				
-				lore.add(builder.toString());
-			}
-			
-			ItemStackHelper.setItemLore(item, lore);
-			
-		}
+		for(int i = 0; i < stack.size(); i++)
+			ItemStackHelper.setItemLore(stack.get(i), ctx.tables[i].getLore());
 	}
 
 	/**
@@ -461,7 +526,8 @@ public class ScrapHandler {
 		// If a dcomp core is installed get the output and decorate
 		if (ctx.coreType == CoreType.DECOMPOSITION) {
 
-			result = ctx.recipeOutput;
+			// The context can be shared so decorate a copy
+			result = MyUtils.clone(ctx.recipeOutput);
 			
 			if(ModOptions.getEnableAssessorEnhancedLore()) {
 				decorateStacks(ctx, result);
@@ -472,19 +538,14 @@ public class ScrapHandler {
 			
 			result = new ArrayList<ItemStack>();
 			final ItemStackWeightTable t = ctx.tables[0];
-			final double totalWeight = t.getTotalWeight();
+			final List<ItemStackItem> entries = t.getEntries();
 			
-			for (final ItemStackItem w : t.getEntries()) {
-
-				final ItemStack temp = w.getStack();
-				if (temp != null
-						&& !(ScrappingTables.keepIt(temp) || ScrappingTables
-								.dustIt(temp))) {
+			for (int i = 0; i < entries.size(); i++) {
 
-					builder.setLength(0);
-					builder.append(doubleFormatter.format(w.itemWeight / totalWeight));
-					builder.append("chance");
-					ItemStackHelper.setItemLore(temp, Collections.singletonList(builder.toString()));
+				final ItemStackItem entry = entries.get(i);
+				if (entry.kind == Kind.ITEM) {
+					final ItemStack temp = entry.getStack();
+					ItemStackHelper.setItemLore(temp, t.getChanceLore(i));
 					result.add(temp);
 				}
 			}
@@ -0,0 +1,128 @@
+/* This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.ThermalRecycling.data;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.blockartistry.mod.ThermalRecycling.ModOptions;
+import org.blockartistry.mod.ThermalRecycling.data.ScrapHandler.ScrappingContext;
+import org.blockartistry.mod.ThermalRecycling.items.CoreType;
+import org.blockartistry.mod.ThermalRecycling.items.ItemLevel;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.LRUCache;
+
+/**
+ * Server wide cache of scrapping plans. A plan is a ScrappingContext that has
+ * been fully resolved - recipe output, weight tables, jam state and input
+ * quantity - and is treated as read only from then on. Machines that process
+ * the same item with the same kind of core share the plan rather than each
+ * building their own.
+ */
+public final class ScrapPlanCache {
+
+	private static final class PlanKey {
+
+		private Item item;
+		private int meta;
+		private NBTTagCompound nbt;
+		private CoreType coreType;
+		private ItemLevel coreLevel;
+		private int hash;
+
+		public PlanKey set(final ItemStack core, final ItemStack stack) {
+			this.item = stack.getItem();
+			this.meta = ItemStackHelper.getItemDamage(stack);
+			this.nbt = stack.stackTagCompound;
+			this.coreType = CoreType.getType(core);
+			this.coreLevel = coreType == CoreType.NONE ? ItemLevel.BASIC : ItemLevel.getLevel(core);
+
+			int h = System.identityHashCode(item);
+			h = h * 31 + meta;
+			h = h * 31 + (nbt == null ? 0 : nbt.hashCode());
+			h = h * 31 + coreType.ordinal();
+			h = h * 31 + coreLevel.ordinal();
+			this.hash = h;
+			return this;
+		}
+
+		public PlanKey copy() {
+			final PlanKey key = new PlanKey();
+			key.item = item;
+			key.meta = meta;
+			key.nbt = nbt == null ? null : (NBTTagCompound) nbt.copy();
+			key.coreType = coreType;
+			key.coreLevel = coreLevel;
+			key.hash = hash;
+			return key;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof PlanKey))
+				return false;
+			final PlanKey key = (PlanKey) o;
+			return hash == key.hash && item == key.item && meta == key.meta && coreType == key.coreType
+					&& coreLevel == key.coreLevel && (nbt == null ? key.nbt == null : nbt.equals(key.nbt));
+		}
+	}
+
+	// Guarded by the class lock
+	private static final PlanKey lookup = new PlanKey();
+	private static final LRUCache<PlanKey, ScrappingContext> plans = new LRUCache<PlanKey, ScrappingContext>(
+			ModOptions.getScrapPlanCacheSize());
+
+	private ScrapPlanCache() {
+	}
+
+	/**
+	 * Returns the plan for scrapping the ItemStack with the specified core,
+	 * building and caching it if needed. The returned context is shared and
+	 * must not be modified.
+	 * 
+	 * @param core Core installed in the machine; may be null
+	 * @param stack ItemStack to be processed
+	 * @return Resolved ScrappingContext for the operation
+	 */
+	public static synchronized ScrappingContext getPlan(final ItemStack core, final ItemStack stack) {
+		ScrappingContext plan = plans.get(lookup.set(core, stack));
+		if (plan == null) {
+			plan = new ScrappingContext(core, stack);
+			plan.handler.initializeContext(plan);
+			plans.put(lookup.copy(), plan);
+		}
+		
+		// Don't hold on to the caller's NBT
+		lookup.nbt = null;
+		return plan;
+	}
+}
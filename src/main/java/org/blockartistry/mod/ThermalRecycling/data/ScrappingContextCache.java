@@ -23,7 +23,9 @@
 
 package org.blockartistry.mod.ThermalRecycling.data;
 
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 
 import org.blockartistry.mod.ThermalRecycling.data.ScrapHandler.ScrappingContext;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
@@ -31,44 +33,95 @@ import org.blockartistry.mod.ThermalRecycling.util.LRUCache;
 
 public final class ScrappingContextCache {
 	
-	private class LRUCacheKey {
+	private static final class LRUCacheKey {
 		
-		public final ItemStack core;
-		public final ItemStack stack;
+		private Item item;
+		private int meta;
+		private NBTTagCompound nbt;
+		private Item coreItem;
+		private int coreMeta;
+		private NBTTagCompound coreNbt;
+		private int hash;
 		
-		public LRUCacheKey(final ItemStack core, final ItemStack stack) {
-			this.core = core;
-			this.stack = stack;
+		public LRUCacheKey set(final ItemStack core, final ItemStack stack) {
+			this.item = stack.getItem();
+			this.meta = ItemStackHelper.getItemDamage(stack);
+			this.nbt = stack.stackTagCompound;
+			if (core != null) {
+				this.coreItem = core.getItem();
+				this.coreMeta = ItemStackHelper.getItemDamage(core);
+				this.coreNbt = core.stackTagCompound;
+			} else {
+				this.coreItem = null;
+				this.coreMeta = 0;
+				this.coreNbt = null;
+			}
+
+			int h = System.identityHashCode(item);
+			h = h * 31 + meta;
+			h = h * 31 + (nbt == null ? 0 : nbt.hashCode());
+			h = h * 31 + System.identityHashCode(coreItem);
+			h = h * 31 + coreMeta;
+			h = h * 31 + (coreNbt == null ? 0 : coreNbt.hashCode());
+			this.hash = h;
+			return this;
+		}
+		
+		public LRUCacheKey copy() {
+			final LRUCacheKey key = new LRUCacheKey();
+			key.item = item;
+			key.meta = meta;
+			key.nbt = nbt == null ? null : (NBTTagCompound) nbt.copy();
+			key.coreItem = coreItem;
+			key.coreMeta = coreMeta;
+			key.coreNbt = coreNbt == null ? null : (NBTTagCompound) coreNbt.copy();
+			key.hash = hash;
+			return key;
+		}
+		
+		public void release() {
+			// Don't hold on to the caller's NBT between lookups
+			nbt = null;
+			coreNbt = null;
+		}
+		
+		private static boolean tagsEqual(final NBTTagCompound nbt1, final NBTTagCompound nbt2) {
+			return nbt1 == null ? nbt2 == null : nbt1.equals(nbt2);
 		}
 		
 		@Override
 		public int hashCode() {
-			// Need to improve this if the size of the cache
-			// gets significant.  This code essentially sorts
-			// everything to a single bucket.
-			return 0;
+			return hash;
 		}
 		
 		@Override
 		public boolean equals(final Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof LRUCacheKey))
+				return false;
 			final LRUCacheKey key = (LRUCacheKey)o;
-			return ItemStackHelper.areEqual(this.stack, key.stack) && ItemStackHelper.areEqual(this.core, key.core);
+			return hash == key.hash && item == key.item && meta == key.meta && coreItem == key.coreItem
+					&& coreMeta == key.coreMeta && tagsEqual(nbt, key.nbt) && tagsEqual(coreNbt, key.coreNbt);
 		}
 	}
 	
 	private final LRUCache<LRUCacheKey, ScrappingContext> cache;
 	
+	// Reused for lookups; only new entries get their own key
+	private final LRUCacheKey lookup = new LRUCacheKey();
+	
 	public ScrappingContextCache(final int entries) {
 		this.cache = new LRUCache<LRUCacheKey, ScrappingContext>(entries);
 	}
 	
 	public ScrappingContext getContext(final ItemStack core, final ItemStack stack) {
-		final LRUCacheKey key = new LRUCacheKey(core, stack);
-		ScrappingContext ctx = cache.get(key);
+		ScrappingContext ctx = cache.get(lookup.set(core, stack));
 		if(ctx == null) {
-			ctx = new ScrappingContext(core, stack);
-			cache.put(key, ctx);
+			ctx = ScrapPlanCache.getPlan(core, stack);
+			cache.put(lookup.copy(), ctx);
 		}
+		lookup.release();
 		
 		return ctx;
 	}
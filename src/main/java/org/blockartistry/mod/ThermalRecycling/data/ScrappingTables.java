@@ -127,6 +127,7 @@ public final class ScrappingTables {
 						if(item != null)
 							table.add(item);
 					}
+					table.freeze();
 					weightTables.set(sv.ordinal(), i, table);
 				}
 			}
@@ -156,6 +157,7 @@ public final class ScrappingTables {
 					}
 				}
 				
+				table.freeze();
 				mustScrap.add(table);
 			}
 			
@@ -25,7 +25,7 @@
 package org.blockartistry.mod.ThermalRecycling.events;
 
 import org.blockartistry.mod.ThermalRecycling.ItemManager;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
@@ -49,7 +49,7 @@ public final class EntityEventHandler {
 	private static final int SOYLENT_DROP_RATE = 3;
 	
 	private static boolean doDropSoylent() {
-		return XorShiftRandom.shared.nextInt(SOYLENT_DROP_RATE) == 0;
+		return SplitMixRandom.shared.nextInt(SOYLENT_DROP_RATE) == 0;
 	}
 
 	private static boolean properSoylentDeath(final LivingDropsEvent event) {
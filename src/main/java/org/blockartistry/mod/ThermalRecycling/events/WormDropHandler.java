@@ -31,7 +31,7 @@ import org.blockartistry.mod.ThermalRecycling.ItemManager;
 import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.items.Material;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import net.minecraft.block.Block;
 import net.minecraft.init.Blocks;
@@ -44,7 +44,7 @@ import com.google.common.base.Predicate;
 
 public class WormDropHandler implements Predicate<HarvestDropsEvent> {
 
-	private static final Random random = XorShiftRandom.shared;
+	private static final Random random = SplitMixRandom.shared;
 	private static final int DROP_CHANCE = ModOptions.getWormDropChance();
 	private static final int DROP_CHANCE_RAIN = ModOptions
 			.getWormDropChanceRain();
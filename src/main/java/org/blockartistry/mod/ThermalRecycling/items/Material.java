@@ -45,7 +45,7 @@ import org.blockartistry.mod.ThermalRecycling.util.InventoryHelper;
 import org.blockartistry.mod.ThermalRecycling.util.ItemBase;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
 import org.blockartistry.mod.ThermalRecycling.util.OreDictionaryHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import com.google.common.collect.ImmutableList;
 
@@ -53,7 +53,7 @@ import cpw.mods.fml.common.registry.GameRegistry;
 
 public final class Material extends ItemBase {
 
-	private static final Random random = XorShiftRandom.shared;
+	private static final Random random = SplitMixRandom.shared;
 	private static final int EGG_ACCELERATION = 3000;
 
 	public static final int PAPER_LOG = 0;
@@ -27,7 +27,7 @@ package org.blockartistry.mod.ThermalRecycling.items.scrapbox;
 import java.util.Collections;
 import java.util.List;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
@@ -105,7 +105,7 @@ public final class EnchantedBookEffect extends UseEffectWeightTable.UseEffectIte
 			if (i != j)
 				Items.enchanted_book.addEnchantment(book, enchants[i]);
 		
-		final int index = XorShiftRandom.shared.nextInt(titles.size());
+		final int index = SplitMixRandom.shared.nextInt(titles.size());
 
 		ItemStackHelper.setItemName(book, titles.get(index));
 		ItemStackHelper.setItemLore(book, descriptions.get(index));
@@ -163,6 +163,19 @@ public abstract class MachineBase extends BlockContainer {
 		super.breakBlock(world, x, y, z, oldBlock, oldMeta);
 	}
 	
+	@Override
+	public void onNeighborBlockChange(final World world, final int x,
+			final int y, final int z, final Block block) {
+		if (!world.isRemote) {
+			final TileEntity te = world.getTileEntity(x, y, z);
+			if (te instanceof TileEntityBase) {
+				((TileEntityBase) te).wake();
+			}
+		}
+
+		super.onNeighborBlockChange(world, x, y, z, block);
+	}
+
 	@Override
 	public int getLightValue(final IBlockAccess world, final int x,
 			final int y, final int z) {
@@ -140,8 +140,13 @@ public final class BatteryRackTileEntity extends TileEntityBase implements IEner
 	@Override
 	public int extractEnergy(final ForgeDirection from, final int maxExtract, final boolean simulate) {
 		detectInputStack();
-		return energyContainer == null ? 0
-				: energyContainer.extractEnergy(input, Math.min(maxExtract, ENERGY_MAX_TRANSFER), simulate);
+		if (energyContainer == null)
+			return 0;
+
+		final int extracted = energyContainer.extractEnergy(input, Math.min(maxExtract, ENERGY_MAX_TRANSFER), simulate);
+		if (!simulate && extracted != 0)
+			inventory.markSlotChanged(INPUT);
+		return extracted;
 	}
 
 	@Override
@@ -209,6 +214,11 @@ public final class BatteryRackTileEntity extends TileEntityBase implements IEner
 		connections = null;
 	}
 
+	@Override
+	public int getTickInterval() {
+		return ModOptions.getBatteryRackTickInterval();
+	}
+
 	@Override
 	public void updateEntity() {
 
@@ -257,6 +267,10 @@ public final class BatteryRackTileEntity extends TileEntityBase implements IEner
 							}
 						}
 					}
+
+					// Drawing energy rewrites the battery's NBT in place
+					if (energyRate != 0)
+						inventory.markSlotChanged(INPUT);
 				}
 			}
 		} else {
@@ -266,9 +280,8 @@ public final class BatteryRackTileEntity extends TileEntityBase implements IEner
 		// IDLE means no energy available
 		// ACTIVE means energy available, not necessarily providing it
 		if (status != previousStatus) {
-			setActiveStatus();
-			worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-			markDirty();
+			broadcastStatus();
+			markChanged();
 		}
 		
 		flush();
@@ -276,6 +276,11 @@ public final class ComposterTileEntity extends TileEntityBase implements
 		return canSeeSky() && hasOutputRoom() && hasWater() && hasGreenBrown();
 	}
 
+	@Override
+	public int getTickInterval() {
+		return ModOptions.getComposterTickInterval();
+	}
+
 	@Override
 	public void updateEntity() {
 
@@ -348,8 +353,7 @@ public final class ComposterTileEntity extends TileEntityBase implements
 
 			// Toggle the glow based on status
 			if(previousStatus != status) {
-				setActiveStatus();
-				worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
+				broadcastStatus();
 			}
 			
 			if (fluidTank.hasSpace() && isRaining() && biomeHasRain())
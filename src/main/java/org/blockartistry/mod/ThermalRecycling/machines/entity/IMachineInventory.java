@@ -24,6 +24,8 @@
 
 package org.blockartistry.mod.ThermalRecycling.machines.entity;
 
+import java.util.List;
+
 import org.blockartistry.mod.ThermalRecycling.util.INBTSerializer;
 
 import net.minecraft.inventory.ISidedInventory;
@@ -33,6 +35,8 @@ import net.minecraft.world.World;
 public interface IMachineInventory extends INBTSerializer, ISidedInventory {
 
 	boolean addStackToOutput(ItemStack stack);
+
+	boolean addStacksToOutput(List<ItemStack> stacks);
 	
 	void coeleceOutput();
 
@@ -42,6 +46,29 @@ public interface IMachineInventory extends INBTSerializer, ISidedInventory {
 	
 	void flush();
 
+	/**
+	 * Version of the inventory as a whole. It goes up whenever any slot
+	 * changes.
+	 */
+	int getVersion();
+
+	/**
+	 * Version of an individual slot. It goes up whenever the slot changes.
+	 */
+	int getSlotVersion(int slot);
+
+	/**
+	 * Indicates whether there are changes that flush() has not yet
+	 * reported to the world.
+	 */
+	boolean hasPendingChanges();
+
+	/**
+	 * Records that the stack in a slot was changed in place, such as
+	 * when energy is drawn from an item, so its version moves.
+	 */
+	void markSlotChanged(int slot);
+
 	boolean removeStackFromOutput(ItemStack stack);
 	
 	ItemStack[] getRawInventory();
@@ -0,0 +1,117 @@
+/*
+ * This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.ThermalRecycling.machines.entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.blockartistry.mod.ThermalRecycling.ModOptions;
+
+import cpw.mods.fml.common.FMLCommonHandler;
+import cpw.mods.fml.common.eventhandler.EventPriority;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import cpw.mods.fml.common.gameevent.TickEvent;
+import cpw.mods.fml.relauncher.Side;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.WorldEvent;
+
+/**
+ * Collects machine status changes during a world tick and sends them to
+ * clients at the end of it. A machine sends at most one status update per
+ * interval; changes made in between are held back and coalesced, and if the
+ * machine ends up where it started nothing is sent at all.
+ */
+public final class MachineStatusBroadcaster {
+
+	private static final int INTERVAL = ModOptions.getStatusBroadcastInterval();
+
+	private static final Map<World, List<TileEntityBase>> pending = new IdentityHashMap<World, List<TileEntityBase>>();
+
+	private MachineStatusBroadcaster() {
+	}
+
+	static void queue(final TileEntityBase machine) {
+		if (machine.statusQueued)
+			return;
+
+		List<TileEntityBase> list = pending.get(machine.getWorldObj());
+		if (list == null) {
+			list = new ArrayList<TileEntityBase>();
+			pending.put(machine.getWorldObj(), list);
+		}
+
+		list.add(machine);
+		machine.statusQueued = true;
+	}
+
+	@SubscribeEvent(priority = EventPriority.NORMAL, receiveCanceled = false)
+	public void onWorldTick(final TickEvent.WorldTickEvent event) {
+
+		if (event.side != Side.SERVER || event.phase != TickEvent.Phase.END)
+			return;
+
+		final List<TileEntityBase> list = pending.get(event.world);
+		if (list == null || list.isEmpty())
+			return;
+
+		final long worldTime = event.world.getTotalWorldTime();
+		for (int i = 0; i < list.size();) {
+			final TileEntityBase machine = list.get(i);
+			if (machine.isInvalid() || machine.unloaded) {
+				machine.statusQueued = false;
+			} else if (worldTime >= machine.nextStatusBroadcast) {
+				machine.statusQueued = false;
+				if (machine.sentStatus != machine.getStatus()) {
+					machine.sentStatus = machine.getStatus();
+					machine.nextStatusBroadcast = worldTime + INTERVAL;
+					machine.sendStatus();
+				}
+			} else {
+				i++;
+				continue;
+			}
+
+			// Order doesn't matter so fill the hole with the last one
+			final int last = list.size() - 1;
+			list.set(i, list.get(last));
+			list.remove(last);
+		}
+	}
+
+	@SubscribeEvent(priority = EventPriority.NORMAL, receiveCanceled = false)
+	public void onWorldUnload(final WorldEvent.Unload event) {
+		pending.remove(event.world);
+	}
+
+	public static void register() {
+		final MachineStatusBroadcaster handler = new MachineStatusBroadcaster();
+		FMLCommonHandler.instance().bus().register(handler);
+		MinecraftForge.EVENT_BUS.register(handler);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.ThermalRecycling.machines.entity;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.blockartistry.mod.ThermalRecycling.ModOptions;
+
+import cpw.mods.fml.common.FMLCommonHandler;
+import cpw.mods.fml.common.eventhandler.EventPriority;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import cpw.mods.fml.common.gameevent.TickEvent;
+import cpw.mods.fml.relauncher.Side;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.WorldEvent;
+
+/**
+ * Ticks machines from a single world tick handler rather than through the
+ * world's generic TileEntity loop. Machines are kept in arrays per type
+ * and per world, and each type can be ticked at its own interval. Within a
+ * type the machines are split by position across the ticks of the
+ * interval.
+ * 
+ * Machines add themselves when they are validated on the server. Machines
+ * that have been invalidated or unloaded with their chunk are dropped the
+ * next time their array is walked.
+ */
+public final class MachineTickScheduler {
+
+	private static final boolean enabled = ModOptions.getEnableTickScheduler();
+
+	// Machines that tick on the same world tick
+	private static final class Phase {
+
+		private TileEntityBase[] machines = new TileEntityBase[16];
+		private int count;
+
+		public void add(final TileEntityBase machine) {
+			if (count == machines.length) {
+				final TileEntityBase[] t = new TileEntityBase[count * 2];
+				System.arraycopy(machines, 0, t, 0, count);
+				machines = t;
+			}
+			machines[count++] = machine;
+		}
+
+		public void tick() {
+
+			// count and machines are read each pass because a machine
+			// can cause another to be added while it updates.
+			for (int i = 0; i < count;) {
+				final TileEntityBase machine = machines[i];
+				if (machine.isInvalid() || machine.unloaded) {
+					machine.scheduled = false;
+					machines[i] = machines[--count];
+					machines[count] = null;
+				} else {
+					machine.updateEntity();
+					i++;
+				}
+			}
+		}
+	}
+
+	// Machines of a type are spread across the ticks of the interval
+	// by position so that the work is steady rather than arriving all
+	// at once every interval ticks.
+	private static final class Bucket {
+
+		private final Phase[] phases;
+
+		public Bucket(final int interval) {
+			phases = new Phase[interval];
+			for (int i = 0; i < interval; i++)
+				phases[i] = new Phase();
+		}
+
+		private static int phaseOf(final TileEntityBase machine, final int interval) {
+			int h = (machine.xCoord * 31 + machine.yCoord) * 31 + machine.zCoord;
+			h ^= h >>> 16;
+			h *= 0x85ebca6b;
+			h ^= h >>> 13;
+			return (h & Integer.MAX_VALUE) % interval;
+		}
+
+		public void add(final TileEntityBase machine) {
+			phases[phaseOf(machine, phases.length)].add(machine);
+		}
+
+		public void tick(final long worldTime) {
+			phases[(int) (worldTime % phases.length)].tick();
+		}
+	}
+
+	private static final Map<World, Map<Class<?>, Bucket>> worlds = new IdentityHashMap<World, Map<Class<?>, Bucket>>();
+
+	private MachineTickScheduler() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	static void add(final TileEntityBase machine) {
+
+		final int interval = machine.getTickInterval();
+		if (interval <= 0)
+			return;
+
+		Map<Class<?>, Bucket> buckets = worlds.get(machine.getWorldObj());
+		if (buckets == null) {
+			buckets = new HashMap<Class<?>, Bucket>();
+			worlds.put(machine.getWorldObj(), buckets);
+		}
+
+		Bucket bucket = buckets.get(machine.getClass());
+		if (bucket == null) {
+			bucket = new Bucket(interval);
+			buckets.put(machine.getClass(), bucket);
+		}
+
+		bucket.add(machine);
+		machine.scheduled = true;
+	}
+
+	@SubscribeEvent(priority = EventPriority.NORMAL, receiveCanceled = false)
+	public void onWorldTick(final TickEvent.WorldTickEvent event) {
+
+		if (event.side != Side.SERVER || event.phase != TickEvent.Phase.END)
+			return;
+
+		final Map<Class<?>, Bucket> buckets = worlds.get(event.world);
+		if (buckets == null)
+			return;
+
+		final long worldTime = event.world.getTotalWorldTime();
+		for (final Bucket bucket : buckets.values())
+			bucket.tick(worldTime);
+	}
+
+	@SubscribeEvent(priority = EventPriority.NORMAL, receiveCanceled = false)
+	public void onWorldUnload(final WorldEvent.Unload event) {
+		worlds.remove(event.world);
+	}
+
+	public static void register() {
+		final MachineTickScheduler handler = new MachineTickScheduler();
+		FMLCommonHandler.instance().bus().register(handler);
+		MinecraftForge.EVENT_BUS.register(handler);
+	}
+}
@@ -24,6 +24,8 @@
 
 package org.blockartistry.mod.ThermalRecycling.machines.entity;
 
+import java.util.List;
+
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -124,6 +126,11 @@ public final class NoInventoryComponent implements IMachineInventory {
 		return false;
 	}
 
+	@Override
+	public boolean addStacksToOutput(final List<ItemStack> stacks) {
+		return false;
+	}
+
 	@Override
 	public void coeleceOutput() {
 		
@@ -143,6 +150,25 @@ public final class NoInventoryComponent implements IMachineInventory {
 		
 	}
 
+	@Override
+	public int getVersion() {
+		return 0;
+	}
+
+	@Override
+	public int getSlotVersion(final int slot) {
+		return 0;
+	}
+
+	@Override
+	public boolean hasPendingChanges() {
+		return false;
+	}
+
+	@Override
+	public void markSlotChanged(final int slot) {
+	}
+
 	@Override
 	public boolean removeStackFromOutput(final ItemStack stack) {
 		return false;
@@ -0,0 +1,186 @@
+/*
+ * This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.ThermalRecycling.machines.entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackKey;
+
+import net.minecraft.item.ItemStack;
+
+/**
+ * Places batches of ItemStacks into a range of output slots. The slots are
+ * indexed once per batch by item key along with the remaining capacity for
+ * each key, so placing a stack only looks at slots that already hold the
+ * same item or the next empty one. No coalesce pass over the slots is
+ * needed.
+ * 
+ * The index is rebuilt on every call because automation and players can
+ * change the output slots at any time between calls.
+ */
+final class OutputAccumulator {
+
+	private static final class Entry {
+		public final List<Integer> slots = new ArrayList<Integer>(2);
+		public int capacity;
+	}
+
+	private final ItemStack[] inventory;
+	private final int start;
+	private final int end;
+
+	private final Map<ItemStackKey, Entry> index = new HashMap<ItemStackKey, Entry>();
+	private final int[] empty;
+	private int emptyCount;
+	private int nextEmpty;
+
+	public OutputAccumulator(final ItemStack[] inventory, final int start,
+			final int end) {
+		this.inventory = inventory;
+		this.start = start;
+		this.end = end;
+		this.empty = new int[end - start + 1];
+	}
+
+	private void buildIndex() {
+
+		index.clear();
+		emptyCount = 0;
+		nextEmpty = 0;
+
+		for (int slot = start; slot <= end; slot++) {
+			final ItemStack stack = inventory[slot];
+			if (stack == null) {
+				empty[emptyCount++] = slot;
+			} else {
+				final int room = stack.getMaxStackSize() - stack.stackSize;
+				if (room > 0) {
+					final ItemStackKey key = new ItemStackKey(stack);
+					Entry entry = index.get(key);
+					if (entry == null) {
+						entry = new Entry();
+						index.put(key, entry);
+					}
+					entry.slots.add(slot);
+					entry.capacity += room;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tops up partially filled slots holding the same item. Returns true if
+	 * the stack was fully absorbed.
+	 */
+	private boolean merge(final Entry entry, final ItemStack stack) {
+
+		final Iterator<Integer> itr = entry.slots.iterator();
+		while (itr.hasNext() && entry.capacity > 0) {
+			final ItemStack target = inventory[itr.next()];
+			if (!ItemStackHelper.areTagsEqual(target.stackTagCompound,
+					stack.stackTagCompound))
+				continue;
+
+			final int room = target.getMaxStackSize() - target.stackSize;
+			final int hold = Math.min(room, stack.stackSize);
+			target.stackSize += hold;
+			stack.stackSize -= hold;
+			entry.capacity -= hold;
+
+			if (hold == room)
+				itr.remove();
+
+			if (stack.stackSize == 0)
+				return true;
+		}
+
+		return false;
+	}
+
+	private boolean place(final ItemStack stack) {
+
+		final ItemStackKey key = new ItemStackKey(stack);
+		Entry entry = index.get(key);
+
+		if (entry != null && entry.capacity > 0 && merge(entry, stack))
+			return true;
+
+		if (nextEmpty == emptyCount)
+			return false;
+
+		final int slot = empty[nextEmpty++];
+		inventory[slot] = stack;
+
+		// Whatever room is left in the new slot can take the
+		// rest of this item in the batch.
+		final int room = stack.getMaxStackSize() - stack.stackSize;
+		if (room > 0) {
+			if (entry == null) {
+				entry = new Entry();
+				index.put(key, entry);
+			}
+			entry.slots.add(slot);
+			entry.capacity += room;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds the stacks in the list to the output slots. Entries that are fully
+	 * placed are set to null in the list; those that could not be placed keep
+	 * whatever quantity is left over.
+	 * 
+	 * @param stacks
+	 *            ItemStacks to place
+	 * @return true if everything was placed, false otherwise
+	 */
+	public boolean add(final List<ItemStack> stacks) {
+
+		buildIndex();
+
+		boolean isEmpty = true;
+		for (int i = 0; i < stacks.size(); i++) {
+			final ItemStack stack = stacks.get(i);
+			if (stack != null && stack.stackSize > 0) {
+				if (place(stack)) {
+					stacks.set(i, null);
+				} else {
+					isEmpty = false;
+				}
+			} else {
+				stacks.set(i, null);
+			}
+		}
+
+		return isEmpty;
+	}
+}
@@ -27,8 +27,10 @@ package org.blockartistry.mod.ThermalRecycling.machines.entity;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
 
+import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.data.ScrapHandler.PreviewResult;
 import org.blockartistry.mod.ThermalRecycling.data.ScrapHandler.ScrappingContext;
+import org.blockartistry.mod.ThermalRecycling.data.ScrapPlanCache;
 import org.blockartistry.mod.ThermalRecycling.machines.gui.GuiIdentifier;
 import org.blockartistry.mod.ThermalRecycling.machines.gui.ScrapAssessorContainer;
 import org.blockartistry.mod.ThermalRecycling.machines.gui.ScrapAssessorGui;
@@ -68,6 +70,11 @@ public final class ScrapAssessorTileEntity extends TileEntityBase implements IJo
 		return new ScrapAssessorContainer(inventory, this);
 	}
 
+	@Override
+	public int getTickInterval() {
+		return ModOptions.getAssessorTickInterval();
+	}
+
 	@Override
 	public void updateEntity() {
 
@@ -90,7 +97,7 @@ public final class ScrapAssessorTileEntity extends TileEntityBase implements IJo
 				oldCore = core;
 				if (input != null) {
 
-					final ScrappingContext context = new ScrappingContext(core,
+					final ScrappingContext context = ScrapPlanCache.getPlan(core,
 							input);
 					status = context.shouldJam ? MachineStatus.JAMMED : MachineStatus.IDLE;
 
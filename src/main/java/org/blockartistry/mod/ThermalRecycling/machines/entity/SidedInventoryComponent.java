@@ -26,8 +26,10 @@ package org.blockartistry.mod.ThermalRecycling.machines.entity;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.util.InventoryHelper;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
 import net.minecraft.entity.player.EntityPlayer;
@@ -54,7 +56,20 @@ public final class SidedInventoryComponent implements IMachineInventory {
 	private int[] accessibleSlots;
 	private int[] hiddenSlots;
 
-	private boolean isDirty;
+	private static final int DIRTY_INTERVAL = ModOptions.getInventoryDirtyInterval();
+
+	// Versions only ever go up. Anything that wants to know whether
+	// the inventory changed remembers the version it last saw and
+	// compares.
+	private final int[] slotVersion;
+	private int version;
+
+	// Version last reported to the world via markDirty(), and the
+	// earliest world time the next report can happen
+	private int flushedVersion;
+	private long nextFlush;
+
+	private OutputAccumulator accumulator;
 
 	public SidedInventoryComponent(final TileEntityBase parent, final int size) {
 
@@ -63,6 +78,44 @@ public final class SidedInventoryComponent implements IMachineInventory {
 
 		entity = parent;
 		inventory = new ItemStack[size];
+		slotVersion = new int[size];
+	}
+
+	private void touch(final int slot) {
+		slotVersion[slot]++;
+		version++;
+		entity.markChunkModified();
+	}
+
+	private void touch(final int start, final int end) {
+		for (int i = start; i <= end; i++)
+			slotVersion[i]++;
+		version++;
+		entity.markChunkModified();
+	}
+
+	private void touchAll() {
+		touch(0, inventory.length - 1);
+	}
+
+	@Override
+	public int getVersion() {
+		return version;
+	}
+
+	@Override
+	public int getSlotVersion(final int slot) {
+		return slotVersion[slot];
+	}
+
+	@Override
+	public boolean hasPendingChanges() {
+		return version != flushedVersion || entity.changed;
+	}
+
+	@Override
+	public void markSlotChanged(final int slot) {
+		touch(slot);
 	}
 
 	private int[] getAccessibleSlots() {
@@ -144,7 +197,8 @@ public final class SidedInventoryComponent implements IMachineInventory {
 				stack = stack.splitStack(count);
 			}
 
-			isDirty = true;
+			touch(index);
+			entity.wake();
 		}
 
 		return stack;
@@ -157,8 +211,9 @@ public final class SidedInventoryComponent implements IMachineInventory {
 
 	@Override
 	public void setInventorySlotContents(final int index, final ItemStack stack) {
-		isDirty = true;
 		inventory[index] = stack;
+		touch(index);
+		entity.wake();
 	}
 
 	@Override
@@ -214,7 +269,10 @@ public final class SidedInventoryComponent implements IMachineInventory {
 
 	@Override
 	public void markDirty() {
-		isDirty = true;
+		// Slots and hoppers change stacks in place and then call
+		// this, so there is no telling which slot changed.
+		touchAll();
+		entity.wake();
 	}
 
 	@Override
@@ -232,6 +290,8 @@ public final class SidedInventoryComponent implements IMachineInventory {
 				inventory[b0] = ItemStack.loadItemStackFromNBT(nbtTagCompound);
 			}
 		}
+
+		touchAll();
 	}
 
 	@Override
@@ -251,20 +311,33 @@ public final class SidedInventoryComponent implements IMachineInventory {
 
 	@Override
 	public boolean addStackToOutput(final ItemStack stack) {
-		isDirty = true;
+		touch(outputStart, outputEnd);
 		return InventoryHelper.addItemStackToInventory(inventory, stack,
 				outputStart, outputEnd - outputStart + 1);
 	}
 	
+	@Override
+	public boolean addStacksToOutput(final List<ItemStack> stacks) {
+		if (outputStart == -1)
+			return false;
+
+		if (accumulator == null)
+			accumulator = new OutputAccumulator(inventory, outputStart,
+					outputEnd);
+
+		touch(outputStart, outputEnd);
+		return accumulator.add(stacks);
+	}
+
 	@Override
 	public boolean removeStackFromOutput(final ItemStack stack) {
-		isDirty = true;
+		touch(outputStart, outputEnd);
 		return InventoryHelper.removeItemStackFromInventory(inventory, stack, outputStart, outputEnd - outputStart + 1);
 	}
 
 	@Override
 	public void coeleceOutput() {
-		isDirty = true;
+		touch(outputStart, outputEnd);
 		InventoryHelper.coelece(inventory, outputStart, outputEnd);
 	}
 
@@ -272,7 +345,7 @@ public final class SidedInventoryComponent implements IMachineInventory {
 	public void dropInventory(final World world, final int x, final int y,
 			final int z) {
 
-		isDirty = true;
+		touchAll();
 		for (final int i : getAccessibleSlots()) {
 			final ItemStack stack = getStackInSlot(i);
 			if (stack != null)
@@ -291,9 +364,16 @@ public final class SidedInventoryComponent implements IMachineInventory {
 
 	@Override
 	public void flush() {
-		if (isDirty) {
-			isDirty = false;
-			entity.markDirty();
+		if (hasPendingChanges()) {
+			// The chunk was flagged for save when the change was made.
+			// markDirty() on the world side also updates comparators,
+			// and once per interval is plenty for that.
+			final long now = entity.getWorldObj().getTotalWorldTime();
+			if (now >= nextFlush) {
+				flushedVersion = version;
+				nextFlush = now + DIRTY_INTERVAL;
+				entity.commitChanges();
+			}
 		}
 	}
 
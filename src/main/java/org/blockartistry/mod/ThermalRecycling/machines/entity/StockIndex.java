@@ -0,0 +1,251 @@
+/*
+ * This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.ThermalRecycling.machines.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Keeps a running count of the items held in a range of inventory slots,
+ * along with the free room in partially filled stacks and the number of
+ * empty slots. The slot versions of the inventory are used to find what
+ * changed, so bringing the index up to date only touches the slots that
+ * were modified. Stock and capacity checks are then simple lookups.
+ */
+final class StockIndex {
+
+	private static final class Key {
+
+		private Item item;
+		private int meta;
+		private NBTTagCompound nbt;
+		private int hash;
+
+		public Key set(final ItemStack stack) {
+			item = stack.getItem();
+			meta = ItemStackHelper.getItemDamage(stack);
+			nbt = stack.stackTagCompound;
+			hash = item.hashCode() * 31 + meta;
+			return this;
+		}
+
+		public Key copy() {
+			final Key key = new Key();
+			key.item = item;
+			key.meta = meta;
+			key.nbt = nbt == null ? null : (NBTTagCompound) nbt.copy();
+			key.hash = hash;
+			return key;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			final Key key = (Key) obj;
+			return item == key.item && meta == key.meta
+					&& ItemStackHelper.areTagsEqual(nbt, key.nbt);
+		}
+	}
+
+	private static final class Entry {
+		public final Key key;
+		public int count;
+		public int room;
+
+		public Entry(final Key key) {
+			this.key = key;
+		}
+	}
+
+	private final IMachineInventory inventory;
+	private final int start;
+	private final int end;
+
+	private final Map<Key, Entry> index = new HashMap<Key, Entry>();
+	private final Key probe = new Key();
+
+	// What each slot contributed the last time it was looked at
+	private final Key[] slotKeys;
+	private final int[] slotCounts;
+	private final int[] slotRooms;
+	private final int[] slotVersions;
+
+	private int version = -1;
+	private int empty;
+
+	public StockIndex(final IMachineInventory inventory, final int start,
+			final int end) {
+		this.inventory = inventory;
+		this.start = start;
+		this.end = end;
+
+		final int size = end - start + 1;
+		this.slotKeys = new Key[size];
+		this.slotCounts = new int[size];
+		this.slotRooms = new int[size];
+		this.slotVersions = new int[size];
+		this.empty = size;
+
+		for (int i = 0; i < size; i++)
+			slotVersions[i] = -1;
+	}
+
+	private void remove(final int i) {
+		final Key key = slotKeys[i];
+		if (key == null) {
+			empty--;
+			return;
+		}
+
+		final Entry entry = index.get(key);
+		entry.count -= slotCounts[i];
+		entry.room -= slotRooms[i];
+		if (entry.count == 0 && entry.room == 0)
+			index.remove(key);
+	}
+
+	private void add(final int i, final ItemStack stack) {
+		if (stack == null) {
+			slotKeys[i] = null;
+			empty++;
+			return;
+		}
+
+		Entry entry = index.get(probe.set(stack));
+		if (entry == null) {
+			entry = new Entry(probe.copy());
+			index.put(entry.key, entry);
+		}
+
+		final int room = Math.max(0, stack.getMaxStackSize() - stack.stackSize);
+		slotKeys[i] = entry.key;
+		slotCounts[i] = stack.stackSize;
+		slotRooms[i] = room;
+		entry.count += stack.stackSize;
+		entry.room += room;
+	}
+
+	// A touched slot may still hold what it did before, such as when
+	// a whole range is marked after adding to the output.
+	private boolean isUnchanged(final int i, final ItemStack stack) {
+		final Key key = slotKeys[i];
+		if (key == null || stack == null)
+			return key == null && stack == null;
+		return slotCounts[i] == stack.stackSize && key.equals(probe.set(stack));
+	}
+
+	private void refresh() {
+
+		final int current = inventory.getVersion();
+		if (current == version)
+			return;
+		version = current;
+
+		for (int slot = start; slot <= end; slot++) {
+			final int i = slot - start;
+			final int v = inventory.getSlotVersion(slot);
+			if (v != slotVersions[i]) {
+				slotVersions[i] = v;
+				final ItemStack stack = inventory.getStackInSlot(slot);
+				if (!isUnchanged(i, stack)) {
+					remove(i);
+					add(i, stack);
+				}
+			}
+		}
+	}
+
+	private Entry get(final ItemStack stack) {
+		return index.get(probe.set(stack));
+	}
+
+	/**
+	 * Number of items in the range that match the stack.
+	 */
+	public int count(final ItemStack stack) {
+		refresh();
+		final Entry entry = get(stack);
+		return entry == null ? 0 : entry.count;
+	}
+
+	/**
+	 * Same semantics as InventoryHelper.doesInventoryContain().
+	 */
+	public boolean contains(final ItemStack stack1, final ItemStack stack2) {
+
+		if (stack1 == null && stack2 == null)
+			return true;
+
+		if (ItemStackHelper.areEqual(stack1, stack2))
+			return count(stack1) >= stack1.stackSize + stack2.stackSize;
+
+		return (stack1 == null || count(stack1) >= stack1.stackSize)
+				&& (stack2 == null || count(stack2) >= stack2.stackSize);
+	}
+
+	// Number of empty slots needed to hold the quantity once the
+	// partially filled stacks are topped up
+	private int slotsNeeded(final ItemStack stack, final int quantity) {
+		final Entry entry = get(stack);
+		final int remaining = quantity - (entry == null ? 0 : entry.room);
+		if (remaining <= 0)
+			return 0;
+		final int max = stack.getMaxStackSize();
+		return (remaining + max - 1) / max;
+	}
+
+	/**
+	 * Checks whether there is enough room in the range to take both
+	 * stacks, in the spirit of InventoryHelper.canInventoryAccept().
+	 */
+	public boolean canAccept(final ItemStack stack1, final ItemStack stack2) {
+
+		if (stack1 == null && stack2 == null)
+			return true;
+
+		refresh();
+
+		if (ItemStackHelper.areEqual(stack1, stack2))
+			return slotsNeeded(stack1, stack1.stackSize + stack2.stackSize) <= empty;
+
+		int needed = 0;
+		if (stack1 != null)
+			needed += slotsNeeded(stack1, stack1.stackSize);
+		if (stack2 != null)
+			needed += slotsNeeded(stack2, stack2.stackSize);
+		return needed <= empty;
+	}
+}
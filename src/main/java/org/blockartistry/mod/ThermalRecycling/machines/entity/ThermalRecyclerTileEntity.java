@@ -73,7 +73,8 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 	private static final int ENERGY_PER_OPERATION_DECOMP = 1600;
 	private static final int ENERGY_PER_OPERATION_EXTRACT = 3200;
 
-	private static final int LRU_CACHE_SIZE = 6;
+	private static final int LRU_CACHE_SIZE = ModOptions.getContextCacheSize();
+	private static final int MAX_OPERATIONS_PER_TICK = ModOptions.getRecyclerBatchSize();
 
 	private class NBT {
 		public static final String ENERGY = "energy";
@@ -104,6 +105,10 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 	protected ItemStack activeStack;
 	protected ItemStack activeCore;
 
+	// Set when the machine is blocked and there is nothing to do
+	// until something changes. Cleared by wake().
+	protected boolean sleeping = false;
+
 	public ThermalRecyclerTileEntity() {
 		super(GuiIdentifier.THERMAL_RECYCLER);
 		final SidedInventoryComponent inv = new SidedInventoryComponent(this,
@@ -171,7 +176,7 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 
 		switch (action) {
 		case UPDATE_ACTION_ENERGY:
-			energy = param * 10;
+			energy = param;
 			break;
 		case UPDATE_ACTION_PROGRESS:
 			progress = param;
@@ -284,8 +289,9 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 			result = ENERGY_MAX_STORAGE - energy;
 		}
 
-		if (!simulate) {
+		if (!simulate && result > 0) {
 			energy += result;
+			wake();
 		}
 
 		return result;
@@ -341,10 +347,20 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 		return new ThermalRecyclerContainer(inventory, this);
 	}
 
+	@Override
+	public void wake() {
+		sleeping = false;
+	}
+
+	@Override
+	public int getTickInterval() {
+		return ModOptions.getRecyclerTickInterval();
+	}
+
 	@Override
 	public void updateEntity() {
 
-		if (!worldObj.isRemote) {
+		if (!worldObj.isRemote && !sleeping) {
 
 			final MachineStatus previousStatus = status;
 			final ItemStack inputSlotStack = detectInputStack();
@@ -375,7 +391,7 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 					if (progress >= operationEnergyForCore(activeCore)) {
 						progress = 0;
 
-						if (!recycleItem()) {
+						if (!recycleItem(operationsAvailable())) {
 							status = MachineStatus.JAMMED;
 						}
 
@@ -419,12 +435,17 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 				if (status != MachineStatus.ACTIVE) {
 					energyRate = 0;
 				}
-				setActiveStatus();
-				worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-				markDirty();
+				broadcastStatus();
+				markChanged();
 			}
 
 			inventory.flush();
+
+			// If the machine is blocked and didn't change state it
+			// will stay that way until an inventory slot, energy or
+			// a neighbor changes.
+			sleeping = status == previousStatus && status != MachineStatus.ACTIVE
+					&& !inventory.hasPendingChanges();
 		}
 	}
 
@@ -456,20 +477,7 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 			return true;
 		}
 
-		inventory.coeleceOutput();
-
-		boolean isEmpty = true;
-
-		for (int i = 0; i < buffer.size(); i++) {
-			final ItemStack stack = buffer.get(i);
-			if (stack != null) {
-				if (inventory.addStackToOutput(stack)) {
-					buffer.set(i, null);
-				} else {
-					isEmpty = false;
-				}
-			}
-		}
+		final boolean isEmpty = inventory.addStacksToOutput(buffer);
 
 		if (isEmpty) {
 			buffer = null;
@@ -478,14 +486,41 @@ public final class ThermalRecyclerTileEntity extends TileEntityBase implements
 		return isEmpty;
 	}
 
+	/**
+	 * Determines how many operations can complete this tick. The first is
+	 * paid for by progress; any extra are paid for up front out of stored
+	 * energy, limited by the input on hand and the configured batch size.
+	 */
+	protected int operationsAvailable() {
+
+		if (MAX_OPERATIONS_PER_TICK <= 1)
+			return 1;
+
+		final int inputOps = activeStack.stackSize
+				/ context.inputQuantityRequired;
+		final int energyOps = energy / operationEnergyForCore(activeCore);
+		return 1 + Math.max(0, Math.min(MAX_OPERATIONS_PER_TICK - 1,
+				Math.min(inputOps - 1, energyOps)));
+	}
+
 	protected boolean recycleItem() {
+		return recycleItem(1);
+	}
+
+	protected boolean recycleItem(final int operations) {
 
 		// Get how many items we need to snag off the stack
 		// and remove them.
-		decrStackSize(INPUT, context.inputQuantityRequired);
+		decrStackSize(INPUT, context.inputQuantityRequired * operations);
+
+		// Anything past the first operation draws straight from the
+		// energy buffer.
+		energy -= (operations - 1) * operationEnergyForCore(activeCore);
 
 		// The necessary information should be in the context already.
-		buffer = context.scrap();
+		// All of the operations are rolled together so there is one
+		// scrap call and one merge into the output slots.
+		buffer = context.scrap(getRandom(), operations);
 
 		// Flush the generated stacks into the output buffer
 		return flushBuffer();
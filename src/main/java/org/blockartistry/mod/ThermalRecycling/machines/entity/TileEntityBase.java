@@ -24,11 +24,13 @@
 
 package org.blockartistry.mod.ThermalRecycling.machines.entity;
 
+import java.util.List;
 import java.util.Random;
 
 import org.blockartistry.mod.ThermalRecycling.ThermalRecycling;
 import org.blockartistry.mod.ThermalRecycling.machines.MachineBase;
 import org.blockartistry.mod.ThermalRecycling.machines.gui.GuiIdentifier;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import cofh.api.tileentity.IReconfigurableFacing;
 import cpw.mods.fml.common.Optional;
@@ -62,6 +64,21 @@ public abstract class TileEntityBase extends TileEntity implements
 	
 	// Part of the TileEntity state
 	protected MachineStatus status = MachineStatus.IDLE;
+	
+	// Random stream owned by this machine - created on first use
+	private Random random;
+
+	// Bookkeeping for the MachineTickScheduler
+	boolean scheduled;
+	boolean unloaded;
+
+	// Machine state outside the inventory changed since the last flush
+	boolean changed;
+
+	// Bookkeeping for the MachineStatusBroadcaster
+	boolean statusQueued;
+	MachineStatus sentStatus;
+	long nextStatusBroadcast;
 
 	public TileEntityBase(final GuiIdentifier gui) {
 		myGui = gui;
@@ -70,7 +87,7 @@ public abstract class TileEntityBase extends TileEntity implements
 	@Override
 	public void onDataPacket(final NetworkManager net, final S35PacketUpdateTileEntity pkt) {
 		// Initializing to a base state from the server
-		readFromNBT(pkt.func_148857_g());
+		readClientState(pkt.func_148857_g());
 		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
 	}
 
@@ -78,11 +95,83 @@ public abstract class TileEntityBase extends TileEntity implements
 	public Packet getDescriptionPacket() {
 		// Sends out the base state to clients
 		final NBTTagCompound syncData = new NBTTagCompound();
-		writeToNBT(syncData);
+		writeClientState(syncData);
 		return new S35PacketUpdateTileEntity(this.xCoord, this.yCoord,
 				this.zCoord, 1, syncData);
 	}
 
+	/**
+	 * Writes the state a client needs to render the machine. This is sent in
+	 * place of the full NBT when a chunk loads or the block is marked for
+	 * update. GUI state is synchronized by the container so it does not need
+	 * to be here.
+	 */
+	protected void writeClientState(final NBTTagCompound nbt) {
+		nbt.setByte(NBT.STATUS, (byte) status.ordinal());
+	}
+
+	/**
+	 * Reads the state written by writeClientState().
+	 */
+	protected void readClientState(final NBTTagCompound nbt) {
+		status = MachineStatus.map(nbt.getByte(NBT.STATUS));
+	}
+
+	/**
+	 * Returns the random stream owned by this machine. It is derived from
+	 * the world seed, world time and machine position so that machines do
+	 * not share or contend for random state.
+	 */
+	protected Random getRandom() {
+		if (random == null) {
+			if (worldObj == null)
+				random = new SplitMixRandom();
+			else
+				random = SplitMixRandom.forPosition(worldObj.getSeed() ^ worldObj.getTotalWorldTime(),
+						worldObj.provider.dimensionId, xCoord, yCoord, zCoord);
+		}
+		return random;
+	}
+
+	/**
+	 * Called when something outside of the machine's own logic may have
+	 * changed its state: an inventory slot, energy, or a neighboring block.
+	 * Machines that park themselves while blocked use this to resume
+	 * ticking.
+	 */
+	public void wake() {
+	}
+
+	/**
+	 * Number of ticks between updates when the MachineTickScheduler is
+	 * enabled. A value of 0 means the machine does not need to be ticked.
+	 */
+	public int getTickInterval() {
+		return 1;
+	}
+
+	@Override
+	public boolean canUpdate() {
+		// When the scheduler is in charge the world does not
+		// tick the machine.
+		return !MachineTickScheduler.isEnabled();
+	}
+
+	@Override
+	public void validate() {
+		super.validate();
+		unloaded = false;
+		if (MachineTickScheduler.isEnabled() && !scheduled
+				&& worldObj != null && !worldObj.isRemote)
+			MachineTickScheduler.add(this);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unloaded = true;
+	}
+
 	public boolean dropInventoryWhenBroke() {
 		return true;
 	}
@@ -137,6 +226,21 @@ public abstract class TileEntityBase extends TileEntity implements
 		}
 	}
 	
+	/**
+	 * Lets clients know that the machine status changed. The update goes out
+	 * at the end of the world tick, and a machine that keeps changing status
+	 * is held to one update per interval.
+	 */
+	public void broadcastStatus() {
+		if (!worldObj.isRemote)
+			MachineStatusBroadcaster.queue(this);
+	}
+
+	void sendStatus() {
+		setActiveStatus();
+		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
+	}
+
 	public boolean onBlockActivated(final World world, final int x, final int y, final int z,
 			final EntityPlayer player, final int side, final float a, final float b, final float c) {
 
@@ -266,6 +370,11 @@ public abstract class TileEntityBase extends TileEntity implements
 		return inventory.addStackToOutput(stack);
 	}
 	
+	@Override
+	public boolean addStacksToOutput(final List<ItemStack> stacks) {
+		return inventory.addStacksToOutput(stacks);
+	}
+
 	@Override
 	public boolean removeStackFromOutput(final ItemStack stack) {
 		return inventory.removeStackFromOutput(stack);
@@ -286,6 +395,66 @@ public abstract class TileEntityBase extends TileEntity implements
 		return inventory.getRawInventory();
 	}
 
+	@Override
+	public int getVersion() {
+		return inventory.getVersion();
+	}
+
+	@Override
+	public int getSlotVersion(final int slot) {
+		return inventory.getSlotVersion(slot);
+	}
+
+	@Override
+	public boolean hasPendingChanges() {
+		return inventory.hasPendingChanges();
+	}
+
+	@Override
+	public void markSlotChanged(final int slot) {
+		inventory.markSlotChanged(slot);
+	}
+
+	@Override
+	public void markDirty() {
+		// Hoppers and the like change stacks in place and then mark
+		// the tile dirty. Let the inventory know so its versions move.
+		// Neighbors hear about it on the next flush().
+		inventory.markDirty();
+		markChunkModified();
+	}
+
+	/**
+	 * Records a change to machine state that lives outside of the
+	 * inventory, such as the status or settings. Unlike markDirty() the
+	 * inventory versions are left alone. Neighbors hear about it on the
+	 * next flush().
+	 */
+	protected void markChanged() {
+		changed = true;
+		markChunkModified();
+	}
+
+	/**
+	 * Flags the chunk as needing to be saved. This only sets a flag so it
+	 * is done on every change, which means nothing is lost if the server
+	 * stops before the next flush(). The comparator update that
+	 * markDirty() also does is the part flush() holds back.
+	 */
+	void markChunkModified() {
+		if (worldObj != null)
+			worldObj.markTileEntityChunkModified(xCoord, yCoord, zCoord, this);
+	}
+
+	/**
+	 * Marks the tile dirty with the world, which updates comparators. Used
+	 * by the inventory component when it flushes.
+	 */
+	void commitChanges() {
+		changed = false;
+		super.markDirty();
+	}
+
 	/**
 	 * Indicates if the machine can be locked.  The notion of locked is
 	 * up to the implementation.
@@ -30,6 +30,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.StatCollector;
 import net.minecraft.world.World;
 
@@ -63,6 +64,7 @@ public class VendingTileEntity extends TileEntityBase {
 			+ CONFIG_INVENTORY_SIZE;
 	public static final int INVENTORY_SLOT_START = 0;
 	public static final int CONFIG_SLOT_START = GENERAL_INVENTORY_SIZE;
+	public static final int TRADE_COUNT = 6;
 
 	private final class NBT {
 		public final static String OWNER = "owner";
@@ -70,6 +72,9 @@ public class VendingTileEntity extends TileEntityBase {
 		public final static String ADMIN_MODE = "admin";
 		public final static String NAME_COLOR = "nameColor";
 		public final static String NAME_BG_COLOR = "nameBGColor";
+		public final static String CONFIG = "config";
+		public final static String STOCK = "stock";
+		public final static String SLOT = "Slot";
 	}
 
 	// Persisted state
@@ -79,6 +84,16 @@ public class VendingTileEntity extends TileEntityBase {
 	private int color = 15;
 	private int backgroundColor = 0;
 
+	// Client side copy of which trades the inventory can fill. The
+	// general inventory is not sent to clients.
+	private int stockFlags = 0;
+
+	// Server side count of the general inventory, built on first use
+	// and kept current from the inventory slot versions.
+	private StockIndex stock;
+	private int sentStockFlags = -1;
+	private int stockCheckedVersion = -1;
+
 	public VendingTileEntity() {
 		super(GuiIdentifier.VENDING);
 
@@ -93,6 +108,37 @@ public class VendingTileEntity extends TileEntityBase {
 		setMachineInventory(inv);
 	}
 
+	// The only work on a tick is letting the world know about
+	// changes, and that happens once per interval at most.
+	@Override
+	public int getTickInterval() {
+		return ModOptions.getInventoryDirtyInterval();
+	}
+
+	@Override
+	public void updateEntity() {
+		if (!worldObj.isRemote) {
+			checkStock();
+			flush();
+		}
+	}
+
+	// Push a new description packet when a trade runs out of stock
+	// or becomes available again so the renderer and trade GUI stay
+	// current. Only rechecked when the inventory has changed.
+	private void checkStock() {
+		final int current = inventory.getVersion();
+		if (current == stockCheckedVersion)
+			return;
+		stockCheckedVersion = current;
+
+		final int flags = getStockFlags();
+		if (flags != sentStockFlags) {
+			sentStockFlags = flags;
+			worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
+		}
+	}
+
 	// Called by break event handler to see if it is OK to break
 	// the block based on ownership.
 	public boolean okToBreak(final EntityPlayer player) {
@@ -123,19 +169,19 @@ public class VendingTileEntity extends TileEntityBase {
 		ownerId = player.getPersistentID();
 		ownerName = player.getDisplayName();
 		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-		markDirty();
+		markChanged();
 	}
 	
 	public void setOwnerId(final UUID id) {
 		ownerId = id;
 		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-		markDirty();
+		markChanged();
 	}
 	
 	public void setName(final String name) {
 		ownerName = name;
 		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-		markDirty();
+		markChanged();
 	}
 
 	/**
@@ -152,7 +198,7 @@ public class VendingTileEntity extends TileEntityBase {
 	public boolean toggleLock() {
 		adminMode = !adminMode;
 		worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-		markDirty();
+		markChanged();
 		return true;
 	}
 
@@ -167,7 +213,7 @@ public class VendingTileEntity extends TileEntityBase {
 		if (color >= 0 && color < 16) {
 			this.color = color;
 			worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-			markDirty();
+			markChanged();
 		}
 	}
 
@@ -182,7 +228,7 @@ public class VendingTileEntity extends TileEntityBase {
 		if (color >= 0 && color < 16) {
 			this.backgroundColor = color;
 			worldObj.markBlockForUpdate(xCoord, yCoord, zCoord);
-			markDirty();
+			markChanged();
 		}
 	}
 
@@ -234,6 +280,100 @@ public class VendingTileEntity extends TileEntityBase {
 		nbt.setByte(NBT.NAME_BG_COLOR, (byte) backgroundColor);
 	}
 
+	// The renderer needs the name tag, the trade configuration and
+	// whether each trade is in stock. Nothing else goes to the client.
+	@Override
+	protected void writeClientState(final NBTTagCompound nbt) {
+		super.writeClientState(nbt);
+
+		nbt.setString(NBT.OWNER_NAME, ownerName);
+		nbt.setBoolean(NBT.ADMIN_MODE, adminMode);
+		nbt.setByte(NBT.NAME_COLOR, (byte) color);
+		nbt.setByte(NBT.NAME_BG_COLOR, (byte) backgroundColor);
+
+		sentStockFlags = getStockFlags();
+		nbt.setByte(NBT.STOCK, (byte) sentStockFlags);
+
+		final NBTTagList nbttaglist = new NBTTagList();
+		for (int i = CONFIG_SLOT_START; i < TOTAL_INVENTORY_SIZE; i++) {
+			final ItemStack stack = getStackInSlot(i);
+			if (stack != null) {
+				final NBTTagCompound nbtTagCompound = new NBTTagCompound();
+				nbtTagCompound.setByte(NBT.SLOT, (byte) i);
+				stack.writeToNBT(nbtTagCompound);
+				nbttaglist.appendTag(nbtTagCompound);
+			}
+		}
+		nbt.setTag(NBT.CONFIG, nbttaglist);
+	}
+
+	@Override
+	protected void readClientState(final NBTTagCompound nbt) {
+		super.readClientState(nbt);
+
+		ownerName = nbt.getString(NBT.OWNER_NAME);
+		adminMode = nbt.getBoolean(NBT.ADMIN_MODE);
+		color = nbt.getByte(NBT.NAME_COLOR);
+		backgroundColor = nbt.getByte(NBT.NAME_BG_COLOR);
+		stockFlags = nbt.getByte(NBT.STOCK);
+
+		for (int i = CONFIG_SLOT_START; i < TOTAL_INVENTORY_SIZE; i++)
+			inventory.setInventorySlotContents(i, null);
+
+		final NBTTagList nbttaglist = nbt.getTagList(NBT.CONFIG, 10);
+		for (int i = 0; i < nbttaglist.tagCount(); ++i) {
+			final NBTTagCompound nbtTagCompound = nbttaglist
+					.getCompoundTagAt(i);
+			final int slot = nbtTagCompound.getByte(NBT.SLOT);
+			if (slot >= CONFIG_SLOT_START && slot < TOTAL_INVENTORY_SIZE)
+				inventory.setInventorySlotContents(slot,
+						ItemStack.loadItemStackFromNBT(nbtTagCompound));
+		}
+	}
+
+	private StockIndex getStock() {
+		if (stock == null)
+			stock = new StockIndex(inventory, INVENTORY_SLOT_START,
+					GENERAL_INVENTORY_SIZE - 1);
+		return stock;
+	}
+
+	private int getStockFlags() {
+		int flags = 0;
+		for (int i = 0; i < TRADE_COUNT; i++)
+			if (isTradeInStock(i))
+				flags |= 1 << i;
+		return flags;
+	}
+
+	/**
+	 * Indicates whether the inventory holds the item for the specified trade.
+	 * On the client this is answered from the last description packet
+	 * because the general inventory is not sent.
+	 * 
+	 * @param trade
+	 *            Trade index, 0 through 5
+	 */
+	public boolean isTradeInStock(final int trade) {
+		if (worldObj != null && worldObj.isRemote)
+			return (stockFlags & (1 << trade)) != 0;
+
+		final ItemStack stack = getStackInSlot(CONFIG_SLOT_START + 12 + trade);
+		return stack == null || getStock().contains(stack, null);
+	}
+
+	/**
+	 * Indicates whether the general inventory has room for the payment of a
+	 * trade. The client does not know the general inventory so it always
+	 * answers true and leaves the decision to the server.
+	 */
+	public boolean canAcceptPayment(final ItemStack input1,
+			final ItemStack input2) {
+		if (worldObj != null && worldObj.isRemote)
+			return true;
+		return getStock().canAccept(input1, input2);
+	}
+
 	// /////////////////////////////////////
 	//
 	// TileEntityBase
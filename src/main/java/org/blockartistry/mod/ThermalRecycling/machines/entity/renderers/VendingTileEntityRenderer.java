@@ -29,7 +29,6 @@ import org.blockartistry.mod.ThermalRecycling.ThermalRecycling;
 import org.blockartistry.mod.ThermalRecycling.machines.MachineBase;
 import org.blockartistry.mod.ThermalRecycling.machines.entity.VendingTileEntity;
 import org.blockartistry.mod.ThermalRecycling.util.DyeHelper;
-import org.blockartistry.mod.ThermalRecycling.util.InventoryHelper;
 import org.blockartistry.mod.ThermalRecycling.world.FantasyIsland;
 import org.lwjgl.opengl.GL11;
 
@@ -262,14 +261,8 @@ public final class VendingTileEntityRenderer extends TileEntitySpecialRenderer
 					renderFREE(i);
 				}
 
-				boolean colorCode = false;
-				if (!vte.isAdminMode() && trade != null) {
-					colorCode = !InventoryHelper.doesInventoryContain(
-							vte.getRawInventory(),
-							VendingTileEntity.INVENTORY_SLOT_START,
-							VendingTileEntity.GENERAL_INVENTORY_SIZE - 1,
-							trade, null);
-				}
+				final boolean colorCode = !vte.isAdminMode()
+						&& !vte.isTradeInStock(i);
 
 				renderItem(trade, 2, i, includeQuantity,
 						colorCode ? RENDER_STYLE_OUT_OF_STOCK
@@ -26,7 +26,6 @@ package org.blockartistry.mod.ThermalRecycling.machines.gui;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
-import net.minecraft.inventory.ICrafting;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
@@ -53,15 +52,9 @@ public final class BatteryRackContainer extends MachineContainer<BatteryRackTile
 
 		final int energyRate = entity.getInfoEnergyPerTick();
 
-		for (int i = 0; i < crafters.size(); ++i) {
-
-			final ICrafting icrafting = (ICrafting) crafters.get(i);
-
-			if (energyRate != currentEnergyRate)
-				icrafting.sendProgressBarUpdate(this,
-						BatteryRackTileEntity.UPDATE_ACTION_ENERGY_RATE,
-						energyRate);
-		}
+		if (energyRate != currentEnergyRate)
+			updateField(BatteryRackTileEntity.UPDATE_ACTION_ENERGY_RATE,
+					energyRate);
 
 		currentEnergyRate = energyRate;
 	}
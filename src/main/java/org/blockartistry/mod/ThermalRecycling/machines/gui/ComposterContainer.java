@@ -26,7 +26,6 @@ package org.blockartistry.mod.ThermalRecycling.machines.gui;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
-import net.minecraft.inventory.ICrafting;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
@@ -75,21 +74,13 @@ public final class ComposterContainer extends MachineContainer<ComposterTileEnti
 		final int progress = entity.getProgress();
 		final int water = entity.getFluidTank().getFluidAmount();
 
-		for (int i = 0; i < crafters.size(); ++i) {
-
-			final ICrafting icrafting = (ICrafting) crafters.get(i);
-
-			if (progress != currentProgress)
-				icrafting.sendProgressBarUpdate(this,
-						ComposterTileEntity.UPDATE_ACTION_PROGRESS, progress);
-			if (water != currentWater)
-				icrafting.sendProgressBarUpdate(this,
-						ComposterTileEntity.UPDATE_WATER_LEVEL, water);
-			if (status != currentStatus)
-				icrafting.sendProgressBarUpdate(this,
-						ComposterTileEntity.UPDATE_ACTION_STATUS,
-						status.ordinal());
-		}
+		if (progress != currentProgress)
+			updateField(ComposterTileEntity.UPDATE_ACTION_PROGRESS, progress);
+		if (water != currentWater)
+			updateField(ComposterTileEntity.UPDATE_WATER_LEVEL, water);
+		if (status != currentStatus)
+			updateField(ComposterTileEntity.UPDATE_ACTION_STATUS,
+					status.ordinal());
 
 		currentStatus = status;
 		currentProgress = progress;
@@ -24,12 +24,17 @@
 
 package org.blockartistry.mod.ThermalRecycling.machines.gui;
 
+import java.util.Arrays;
+
 import org.blockartistry.mod.ThermalRecycling.machines.entity.TileEntityBase;
+import org.blockartistry.mod.ThermalRecycling.network.MachineStatePacket;
+import org.blockartistry.mod.ThermalRecycling.network.PacketHandler;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
 
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.Container;
 import net.minecraft.inventory.ICrafting;
@@ -49,11 +54,23 @@ public abstract class MachineContainer<T extends TileEntityBase> extends Contain
 	protected final T entity;
 	protected int spamCycle;
 
+	// Inventory versions as of the last sync. Slots backed by the
+	// machine inventory are only looked at when their version moves.
+	protected int syncedVersion = -1;
+	protected int[] syncedSlotVersions;
+
+	// Fields changed during handleStatus(). Sent as one packet.
+	private MachineStatePacket pendingState;
+
 	public MachineContainer(final T entity) {
 		this.entity = entity;
 		this.spamCycle = 0;
 	}
 
+	protected boolean isMachineSlot(final Slot slot) {
+		return slot.inventory == entity.getMachineInventory();
+	}
+
 	protected void addPlayerInventory(final InventoryPlayer inv, final int guiHeight) {
 
 		int yOffset = guiHeight - 82;
@@ -81,10 +98,35 @@ public abstract class MachineContainer<T extends TileEntityBase> extends Contain
 	/**
 	 * Override to provide logic for handling machine specific status
 	 * processing. This will occur during detectAndSendChanges().
+	 * Changed values should be reported with updateField().
 	 */
 	public void handleStatus() {
 	}
 
+	/**
+	 * Queues a field update for the clients watching this container. The
+	 * id/value pair arrives at updateProgressBar() on the client. Unlike
+	 * sendProgressBarUpdate() the value is not limited to 16 bits.
+	 */
+	protected void updateField(final int id, final int value) {
+		if (pendingState == null)
+			pendingState = new MachineStatePacket(windowId);
+		pendingState.add(id, value);
+	}
+
+	protected void sendFields() {
+		if (pendingState == null)
+			return;
+
+		for (int i = 0; i < crafters.size(); ++i) {
+			final Object crafter = crafters.get(i);
+			if (crafter instanceof EntityPlayerMP)
+				PacketHandler.sendTo(pendingState, (EntityPlayerMP) crafter);
+		}
+
+		pendingState = null;
+	}
+
 	// Rework the base slot change mechanism. The focus of this
 	// routine is to minimize creation of new ItemStacks and
 	// associated copying. Should increase performance and
@@ -109,10 +151,33 @@ public abstract class MachineContainer<T extends TileEntityBase> extends Contain
 		}
 
 		final int invSize = this.inventorySlots.size();
+		if (syncedSlotVersions == null || syncedSlotVersions.length != invSize) {
+			syncedSlotVersions = new int[invSize];
+			Arrays.fill(syncedSlotVersions, -1);
+			syncedVersion = -1;
+		}
+
+		// If the machine inventory hasn't changed none of its slots
+		// need to be compared. The player inventory slots don't carry
+		// versions so they always are.
+		final int version = entity.getVersion();
+		final boolean machineChanged = version != syncedVersion;
+		syncedVersion = version;
+
 		for (int i = 0; i < invSize; ++i) {
 
-			final ItemStack slotItemStack = ((Slot) this.inventorySlots.get(i))
-					.getStack();
+			final Slot slot = (Slot) this.inventorySlots.get(i);
+			if (isMachineSlot(slot)) {
+				if (!machineChanged)
+					continue;
+				final int slotVersion = entity.getSlotVersion(slot
+						.getSlotIndex());
+				if (slotVersion == syncedSlotVersions[i])
+					continue;
+				syncedSlotVersions[i] = slotVersion;
+			}
+
+			final ItemStack slotItemStack = slot.getStack();
 			ItemStack cacheItemStack = (ItemStack) this.inventoryItemStacks
 					.get(i);
 
@@ -167,6 +232,7 @@ public abstract class MachineContainer<T extends TileEntityBase> extends Contain
 		}
 
 		handleStatus();
+		sendFields();
 	}
 
 	@Override
@@ -26,7 +26,6 @@ package org.blockartistry.mod.ThermalRecycling.machines.gui;
 
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
-import net.minecraft.inventory.ICrafting;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
@@ -76,15 +75,9 @@ public final class ScrapAssessorContainer extends
 
 		final MachineStatus status = entity.getStatus();
 
-		for (int i = 0; i < crafters.size(); ++i) {
-
-			final ICrafting icrafting = (ICrafting) crafters.get(i);
-
-			if (status != currentStatus)
-				icrafting.sendProgressBarUpdate(this,
-						ScrapAssessorTileEntity.UPDATE_ACTION_STATUS,
-						status.ordinal());
-		}
+		if (status != currentStatus)
+			updateField(ScrapAssessorTileEntity.UPDATE_ACTION_STATUS,
+					status.ordinal());
 
 		currentStatus = status;
 	}
@@ -33,7 +33,6 @@ import cofh.lib.gui.slot.SlotAcceptValid;
 import cofh.lib.gui.slot.SlotRemoveOnly;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
-import net.minecraft.inventory.ICrafting;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
@@ -84,26 +83,17 @@ public final class ThermalRecyclerContainer extends MachineContainer<ThermalRecy
 		final int energy = entity.getInfoEnergyStored();
 		final int energyRate = entity.getInfoEnergyPerTick();
 
-		for (int i = 0; i < crafters.size(); ++i) {
-
-			final ICrafting icrafting = (ICrafting) crafters.get(i);
-
-			if (progress != currentProgress)
-				icrafting.sendProgressBarUpdate(this,
-						ThermalRecyclerTileEntity.UPDATE_ACTION_PROGRESS,
-						progress);
-			if (energy != currentEnergy)
-				icrafting.sendProgressBarUpdate(this,
-						ThermalRecyclerTileEntity.UPDATE_ACTION_ENERGY, energy/10);
-			if (energyRate != currentEnergyRate)
-				icrafting.sendProgressBarUpdate(this,
-						ThermalRecyclerTileEntity.UPDATE_ACTION_ENERGY_RATE,
-						energyRate);
-			if (status != currentStatus)
-				icrafting.sendProgressBarUpdate(this,
-						ThermalRecyclerTileEntity.UPDATE_ACTION_STATUS,
-						status.ordinal());
-		}
+		if (progress != currentProgress)
+			updateField(ThermalRecyclerTileEntity.UPDATE_ACTION_PROGRESS,
+					progress);
+		if (energy != currentEnergy)
+			updateField(ThermalRecyclerTileEntity.UPDATE_ACTION_ENERGY, energy);
+		if (energyRate != currentEnergyRate)
+			updateField(ThermalRecyclerTileEntity.UPDATE_ACTION_ENERGY_RATE,
+					energyRate);
+		if (status != currentStatus)
+			updateField(ThermalRecyclerTileEntity.UPDATE_ACTION_STATUS,
+					status.ordinal());
 
 		currentStatus = status;
 		currentProgress = progress;
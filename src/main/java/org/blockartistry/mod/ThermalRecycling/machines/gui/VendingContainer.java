@@ -94,7 +94,6 @@ public final class VendingContainer extends MachineContainer<VendingTileEntity>
 
 	protected ItemStack doTrade(final Slot slot, final EntityPlayer player) {
 
-		final ItemStack[] entityInventory = entity.getRawInventory();
 		final ItemStack[] playerInventory = player.inventory.mainInventory;
 
 		// Get the result of the potential trade. If there is nothing,
@@ -109,10 +108,8 @@ public final class VendingContainer extends MachineContainer<VendingTileEntity>
 
 		// Can the inventory provide the result item?
 		if (normalMode
-				&& !InventoryHelper.doesInventoryContain(entityInventory,
-						VendingTileEntity.INVENTORY_SLOT_START,
-						VendingTileEntity.GENERAL_INVENTORY_SIZE - 1, result,
-						null))
+				&& !entity.isTradeInStock(slot.getSlotIndex()
+						- VendingTileEntity.CONFIG_SLOT_START - 12))
 			return null;
 
 		// Get the input slots. We do some math on the slot index to
@@ -123,11 +120,7 @@ public final class VendingContainer extends MachineContainer<VendingTileEntity>
 		final ItemStack input2 = entity.getStackInSlot(index + 6);
 
 		// See if the vending inventory can accept the required items
-		if (normalMode
-				&& !InventoryHelper.canInventoryAccept(entityInventory,
-						VendingTileEntity.INVENTORY_SLOT_START,
-						VendingTileEntity.GENERAL_INVENTORY_SIZE - 1, input1,
-						input2))
+		if (normalMode && !entity.canAcceptPayment(input1, input2))
 			return null;
 
 		// See if the player can provide the payment
@@ -135,23 +128,26 @@ public final class VendingContainer extends MachineContainer<VendingTileEntity>
 				playerInventory.length - 1, input1, input2))
 			return null;
 
-		// OK - things should work. Do the transaction.
+		// OK - things should work. Do the transaction. The client
+		// does not hold the vending inventory so only the server
+		// updates it.
+		final boolean updateEntity = normalMode && !player.worldObj.isRemote;
 		if (input1 != null) {
-			if (!entity.isAdminMode()) {
+			if (updateEntity) {
 				entity.addStackToOutput(input1.copy());
 			}
 			InventoryHelper.removeItemStackFromInventory(playerInventory,
 					input1.copy(), 0, playerInventory.length - 1);
 		}
 		if (input2 != null) {
-			if (!entity.isAdminMode()) {
+			if (updateEntity) {
 				entity.addStackToOutput(input2.copy());
 			}
 			InventoryHelper.removeItemStackFromInventory(playerInventory,
 					input2.copy(), 0, playerInventory.length - 1);
 		}
 
-		if (!entity.isAdminMode()) {
+		if (updateEntity) {
 			entity.removeStackFromOutput(result.copy());
 		}
 
@@ -177,13 +173,7 @@ public final class VendingContainer extends MachineContainer<VendingTileEntity>
 		if(entity.isAdminMode())
 			return true;
 		
-		final ItemStack[] inv = entity.getRawInventory();
-		final ItemStack stack = inv[slot.getSlotIndex()];
-		if(stack != null)
-			return InventoryHelper.doesInventoryContain(inv,
-					VendingTileEntity.INVENTORY_SLOT_START,
-					VendingTileEntity.GENERAL_INVENTORY_SIZE - 1, stack, null);
-		
-		return true;
+		return entity.isTradeInStock(slot.getSlotIndex()
+				- VendingTileEntity.CONFIG_SLOT_START - 12);
 	}
 }
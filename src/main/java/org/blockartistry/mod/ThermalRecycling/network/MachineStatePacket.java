@@ -0,0 +1,124 @@
+/*
+ * This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.mod.ThermalRecycling.network;
+
+import org.blockartistry.mod.ThermalRecycling.ThermalRecycling;
+
+import cpw.mods.fml.common.network.ByteBufUtils;
+import cpw.mods.fml.common.network.simpleimpl.IMessage;
+import cpw.mods.fml.common.network.simpleimpl.IMessageHandler;
+import cpw.mods.fml.common.network.simpleimpl.MessageContext;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Carries the changed GUI fields of a machine to the player that has its
+ * container open. Each field is an id/value pair in the same id space as
+ * Container.updateProgressBar(), but values are full ints. Everything is
+ * written as a varint so small values stay small on the wire.
+ */
+public final class MachineStatePacket implements IMessage {
+
+	private static final int MAX_VARINT_SIZE = 5;
+
+	private int windowId;
+	private int count;
+	private int[] ids;
+	private int[] values;
+
+	public MachineStatePacket() {
+	}
+
+	public MachineStatePacket(final int windowId) {
+		this.windowId = windowId;
+		this.ids = new int[4];
+		this.values = new int[4];
+	}
+
+	public void add(final int id, final int value) {
+		if (count == ids.length) {
+			final int[] newIds = new int[count * 2];
+			final int[] newValues = new int[count * 2];
+			System.arraycopy(ids, 0, newIds, 0, count);
+			System.arraycopy(values, 0, newValues, 0, count);
+			ids = newIds;
+			values = newValues;
+		}
+		ids[count] = id;
+		values[count] = value;
+		count++;
+	}
+
+	public int getWindowId() {
+		return windowId;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public int getId(final int index) {
+		return ids[index];
+	}
+
+	public int getValue(final int index) {
+		return values[index];
+	}
+
+	@Override
+	public void fromBytes(final ByteBuf buf) {
+		windowId = ByteBufUtils.readVarInt(buf, MAX_VARINT_SIZE);
+		count = ByteBufUtils.readVarInt(buf, MAX_VARINT_SIZE);
+		ids = new int[count];
+		values = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = ByteBufUtils.readVarInt(buf, MAX_VARINT_SIZE);
+			values[i] = ByteBufUtils.readVarInt(buf, MAX_VARINT_SIZE);
+		}
+	}
+
+	@Override
+	public void toBytes(final ByteBuf buf) {
+		ByteBufUtils.writeVarInt(buf, windowId, MAX_VARINT_SIZE);
+		ByteBufUtils.writeVarInt(buf, count, MAX_VARINT_SIZE);
+		for (int i = 0; i < count; i++) {
+			ByteBufUtils.writeVarInt(buf, ids[i], MAX_VARINT_SIZE);
+			ByteBufUtils.writeVarInt(buf, values[i], MAX_VARINT_SIZE);
+		}
+	}
+
+	public static final class Handler implements
+			IMessageHandler<MachineStatePacket, IMessage> {
+
+		@Override
+		public IMessage onMessage(final MachineStatePacket message,
+				final MessageContext ctx) {
+			// Client only classes are involved so the proxy does
+			// the work.
+			ThermalRecycling.proxy().handleMachineState(message);
+			return null;
+		}
+	}
+}
@@ -55,9 +55,14 @@ import org.blockartistry.mod.ThermalRecycling.events.VendingMachineBreakHandler;
 import org.blockartistry.mod.ThermalRecycling.events.WormDropHandler;
 import org.blockartistry.mod.ThermalRecycling.items.FuelHandler;
 import org.blockartistry.mod.ThermalRecycling.items.scrapbox.UseEffect;
+import org.blockartistry.mod.ThermalRecycling.machines.entity.MachineStatusBroadcaster;
+import org.blockartistry.mod.ThermalRecycling.machines.entity.MachineTickScheduler;
 import org.blockartistry.mod.ThermalRecycling.machines.gui.GuiHandler;
+import org.blockartistry.mod.ThermalRecycling.network.MachineStatePacket;
+import org.blockartistry.mod.ThermalRecycling.network.PacketHandler;
 import org.blockartistry.mod.ThermalRecycling.nei.NEIManager;
 import org.blockartistry.mod.ThermalRecycling.support.ModPlugin;
+import org.blockartistry.mod.ThermalRecycling.support.recipe.RecipeDecomposition;
 import org.blockartistry.mod.ThermalRecycling.tweaker.MineTweakerSupport;
 import org.blockartistry.mod.ThermalRecycling.util.FakePlayerHelper;
 import org.blockartistry.mod.ThermalRecycling.util.UpgradeRecipe;
@@ -76,8 +81,16 @@ public class Proxy {
 
 	private static boolean started = false;
 
+	/**
+	 * Applies a machine state update received from the server. Only
+	 * meaningful on the client.
+	 */
+	public void handleMachineState(final MachineStatePacket packet) {
+	}
+
 	public void preInit(final FMLPreInitializationEvent event, final Configuration config) {
 		FakePlayerHelper.initialize("ThermalRecycling");
+		PacketHandler.initialize();
 
 		ModPlugin.preInitPlugins(config);
 	}
@@ -125,6 +138,11 @@ public class Proxy {
 
 		EntityItemMergeHandler.register();
 
+		MachineStatusBroadcaster.register();
+
+		if (MachineTickScheduler.isEnabled())
+			MachineTickScheduler.register();
+
 		WailaHandler.register();
 
 		MineTweakerSupport.initialize();
@@ -153,6 +171,7 @@ public class Proxy {
 			// Do this here since this does the heavy lifting on decomposing
 			// the recipe list. MineTweaker may have changes applied and
 			// we need to be sensitive to them.
+			RecipeDecomposition.invalidateOutputIndex();
 			ModPlugin.postInitPlugins();
 
 			if (ModOptions.getEnableRecipeLogging()) {
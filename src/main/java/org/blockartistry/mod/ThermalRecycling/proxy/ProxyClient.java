@@ -29,10 +29,14 @@ import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.VersionCheck;
 import org.blockartistry.mod.ThermalRecycling.client.TextureManager;
 import org.blockartistry.mod.ThermalRecycling.events.ToolTipEventHandler;
+import org.blockartistry.mod.ThermalRecycling.network.MachineStatePacket;
 import org.blockartistry.mod.ThermalRecycling.tooltip.DebugToolTip;
 import org.blockartistry.mod.ThermalRecycling.tooltip.ScrapToolTip;
 import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.Container;
 import net.minecraftforge.common.config.Configuration;
 
 public final class ProxyClient extends Proxy {
@@ -49,6 +53,21 @@ public final class ProxyClient extends Proxy {
 		VersionCheck.register();
 	}
 
+	@Override
+	public void handleMachineState(final MachineStatePacket packet) {
+		final EntityPlayer player = Minecraft.getMinecraft().thePlayer;
+		if (player == null)
+			return;
+
+		// The GUI may have been closed while the packet was in flight
+		final Container container = player.openContainer;
+		if (container == null || container.windowId != packet.getWindowId())
+			return;
+
+		for (int i = 0; i < packet.getCount(); i++)
+			container.updateProgressBar(packet.getId(i), packet.getValue(i));
+	}
+
 	@Override
 	public void init(final FMLInitializationEvent event) {
 
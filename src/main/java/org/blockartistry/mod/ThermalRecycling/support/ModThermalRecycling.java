@@ -41,8 +41,10 @@ import org.blockartistry.mod.ThermalRecycling.data.ScrappingTables;
 import org.blockartistry.mod.ThermalRecycling.items.Material;
 import org.blockartistry.mod.ThermalRecycling.items.RecyclingScrap;
 import org.blockartistry.mod.ThermalRecycling.support.handlers.ThermalRecyclingScrapHandler;
+import org.blockartistry.mod.ThermalRecycling.support.recipe.DecompositionCache;
 import org.blockartistry.mod.ThermalRecycling.support.recipe.RecipeDecomposition;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.MyUtils;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackWeightTable.ItemStackItem;
 
 import cpw.mods.fml.common.registry.GameRegistry;
@@ -279,9 +281,10 @@ public final class ModThermalRecycling extends ModPlugin {
 		return true;
 	}
 
-	private void processRecipeList(final List<Object> recipes, final boolean vanillaOnly) {
+	private List<IRecipe> selectRecipes(final List<Object> recipes) {
+
+		final List<IRecipe> result = new ArrayList<IRecipe>(recipes.size());
 
-		// Process all registered recipes
 		for (final Object o : recipes) {
 
 			final IRecipe recipe = (IRecipe) o;
@@ -293,28 +296,61 @@ public final class ModThermalRecycling extends ModPlugin {
 				// the list. This does not mean that something later
 				// on can't add one - just means by default it will
 				// not be included.
-				if (stack != null && (!vanillaOnly || ItemStackHelper.isVanilla(stack))) {
-					if (!ItemData.isRecipeIgnored(stack)) {
-
-						// If the name is prefixed with any of the mods
-						// we know about then we can create the recipe.
-						final String name = Item.itemRegistry.getNameForObject(stack.getItem());
-
-						if (SupportedMod.isModWhitelisted(name)) {
-							final List<ItemStack> output = RecipeDecomposition.decompose(recipe);
-							if (output != null && !output.isEmpty()) {
-								if (vanillaOnly && !ItemStackHelper.isVanilla(output))
-									continue;
-								recycler.useRecipe(recipe).save();
-							}
-						}
-					}
+				if (stack != null && !ItemData.isRecipeIgnored(stack)) {
+
+					// If the name is prefixed with any of the mods
+					// we know about then we can create the recipe.
+					final String name = Item.itemRegistry.getNameForObject(stack.getItem());
+
+					if (SupportedMod.isModWhitelisted(name))
+						result.add(recipe);
 				}
 			} catch (Throwable t) {
 				ModLog.warn("processRecipeList: Unable to register recipe for [%s]",
 						ItemStackHelper.resolveName(stack));
 			}
 		}
+
+		return result;
+	}
+
+	private void processRecipeList(final List<IRecipe> recipes, final List<List<ItemStack>> projections,
+			final DecompositionCache cache) {
+
+		// Process all registered recipes in a single walk. The
+		// projections were computed up front so all that is left is
+		// the registration. Vanilla recipes are registered as they are
+		// encountered; everything else is deferred until the walk is
+		// done so that vanilla takes precedence.
+		final List<Integer> deferred = new ArrayList<Integer>();
+
+		for (int i = 0; i < recipes.size(); i++) {
+			final List<ItemStack> output = projections.get(i);
+			if (output == null || output.isEmpty())
+				continue;
+
+			final ItemStack stack = recipes.get(i).getRecipeOutput();
+			if (ItemStackHelper.isVanilla(stack) && ItemStackHelper.isVanilla(output))
+				registerRecipe(stack, output, cache);
+			else
+				deferred.add(i);
+		}
+
+		for (final Integer i : deferred)
+			registerRecipe(recipes.get(i).getRecipeOutput(), projections.get(i), cache);
+	}
+
+	private void registerRecipe(final ItemStack stack, final List<ItemStack> output,
+			final DecompositionCache cache) {
+		try {
+			// Registration can merge stacks so hand over a copy
+			recycler.input(stack).useRecipe(MyUtils.clone(output)).save();
+			if (cache != null)
+				cache.record(stack, output);
+		} catch (Throwable t) {
+			ModLog.warn("processRecipeList: Unable to register recipe for [%s]",
+					ItemStackHelper.resolveName(stack));
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -327,8 +363,16 @@ public final class ModThermalRecycling extends ModPlugin {
 		//
 		// ////////////////////
 		final List<Object> recipes = CraftingManager.getInstance().getRecipeList();
-		processRecipeList(recipes, true);
-		processRecipeList(recipes, false);
+		final DecompositionCache cache = ModOptions.getEnableRecipeCache() ? new DecompositionCache(recipes) : null;
+
+		if (cache == null || !cache.replay(recycler)) {
+			final List<IRecipe> candidates = selectRecipes(recipes);
+			final List<List<ItemStack>> projections = RecipeDecomposition.decompose(candidates,
+					ModOptions.getRecipeScanThreads());
+			processRecipeList(candidates, projections, cache);
+			if (cache != null)
+				cache.save();
+		}
 
 		// Lock our tables
 		ItemData.freeze();
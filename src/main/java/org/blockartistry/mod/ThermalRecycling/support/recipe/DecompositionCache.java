@@ -0,0 +1,373 @@
+/* This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.ThermalRecycling.support.recipe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.blockartistry.mod.ThermalRecycling.ModLog;
+import org.blockartistry.mod.ThermalRecycling.ThermalRecycling;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.MyUtils;
+import org.blockartistry.mod.ThermalRecycling.util.OreDictionaryHelper;
+
+import com.google.common.collect.ImmutableSet;
+import cpw.mods.fml.common.Loader;
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.common.registry.GameData;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Persists the results of the crafting recipe scan between runs. The cache
+ * records the recipes registered by the scan, in order, so that they can be
+ * replayed into RecipeData without running the decomposition logic. The
+ * cache is keyed by a fingerprint of the loaded mods, the configuration
+ * files, the MineTweaker scripts, the scrap data, the ore dictionary, and the
+ * inputs and outputs of the crafting recipes. If anything changes the
+ * fingerprint will not match and the cache is rebuilt.
+ */
+public final class DecompositionCache {
+
+	private static final int MAGIC = 0x54524443; // "TRDC"
+	private static final int FORMAT_VERSION = 1;
+
+	// Config files that are rewritten on every launch
+	private static final Set<String> VOLATILE_FILES = ImmutableSet.of("splash.properties");
+
+	private static final class Entry {
+
+		public final ItemStack input;
+		public final List<ItemStack> output;
+
+		public Entry(final ItemStack input, final List<ItemStack> output) {
+			this.input = input;
+			this.output = output;
+		}
+	}
+
+	private final File file;
+	private final byte[] fingerprint;
+	private final List<Entry> entries = new ArrayList<Entry>(1024);
+
+	public DecompositionCache(final List<Object> recipes) {
+		this.file = new File(Loader.instance().getConfigDir(), ThermalRecycling.CACHE_FILE);
+		this.fingerprint = calculateFingerprint(recipes);
+	}
+
+	/**
+	 * Records a recipe registered by the scan. The stacks are copied so that
+	 * later merging of output by RecipeData does not change what was saved.
+	 */
+	public void record(final ItemStack input, final List<ItemStack> output) {
+		entries.add(new Entry(input.copy(), MyUtils.clone(output)));
+	}
+
+	/**
+	 * Attempts to load the cache from disk and replay it through the
+	 * provided builder.
+	 * 
+	 * @return true if the cache was valid and replayed; false otherwise
+	 */
+	public boolean replay(final ThermalRecyclerRecipeBuilder recycler) {
+
+		if (fingerprint == null || !file.exists())
+			return false;
+
+		final List<Entry> loaded;
+
+		try {
+			loaded = load();
+		} catch (final Exception e) {
+			ModLog.warn("Unable to read recipe cache: %s", e.getMessage());
+			return false;
+		}
+
+		if (loaded == null)
+			return false;
+
+		for (final Entry e : loaded)
+			recycler.input(e.input).useRecipe(e.output).save();
+
+		ModLog.info("Loaded %d recipes from the recipe cache", loaded.size());
+		return true;
+	}
+
+	public void save() {
+
+		if (fingerprint == null)
+			return;
+
+		DataOutputStream out = null;
+
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(fingerprint.length);
+			out.write(fingerprint);
+			out.writeInt(entries.size());
+			for (final Entry e : entries) {
+				writeStack(out, e.input);
+				out.writeInt(e.output.size());
+				for (final ItemStack stack : e.output)
+					writeStack(out, stack);
+			}
+		} catch (final Exception e) {
+			ModLog.warn("Unable to write recipe cache: %s", e.getMessage());
+			file.delete();
+		} finally {
+			if (out != null)
+				try {
+					out.close();
+				} catch (final IOException e) {
+					;
+				}
+		}
+	}
+
+	private List<Entry> load() throws IOException {
+
+		DataInputStream in = null;
+
+		try {
+			in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return null;
+
+			final byte[] saved = new byte[in.readInt()];
+			in.readFully(saved);
+			if (!Arrays.equals(saved, fingerprint))
+				return null;
+
+			final int count = in.readInt();
+			final List<Entry> result = new ArrayList<Entry>(count);
+			for (int i = 0; i < count; i++) {
+				final ItemStack input = readStack(in);
+				final int outputCount = in.readInt();
+				final List<ItemStack> output = new ArrayList<ItemStack>(outputCount);
+				for (int j = 0; j < outputCount; j++)
+					output.add(readStack(in));
+				result.add(new Entry(input, output));
+			}
+
+			return result;
+
+		} finally {
+			if (in != null)
+				try {
+					in.close();
+				} catch (final IOException e) {
+					;
+				}
+		}
+	}
+
+	// Items are stored by registry name since numeric IDs can
+	// be remapped between runs.
+	private static void writeStack(final DataOutputStream out, final ItemStack stack) throws IOException {
+		out.writeUTF(Item.itemRegistry.getNameForObject(stack.getItem()));
+		out.writeInt(ItemStackHelper.getItemDamage(stack));
+		out.writeInt(stack.stackSize);
+		out.writeBoolean(stack.hasTagCompound());
+		if (stack.hasTagCompound())
+			CompressedStreamTools.write(stack.getTagCompound(), out);
+	}
+
+	private static ItemStack readStack(final DataInputStream in) throws IOException {
+		final String name = in.readUTF();
+		final int damage = in.readInt();
+		final int size = in.readInt();
+		final NBTTagCompound nbt = in.readBoolean() ? CompressedStreamTools.read(in) : null;
+
+		final Item item = GameData.getItemRegistry().getObject(name);
+		if (item == null)
+			throw new IOException("Unknown item " + name);
+
+		final ItemStack stack = new ItemStack(item, size, damage);
+		if (nbt != null)
+			stack.setTagCompound(nbt);
+		return stack;
+	}
+
+	private byte[] calculateFingerprint(final List<Object> recipes) {
+
+		try {
+
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+			for (final ModContainer mod : Loader.instance().getActiveModList()) {
+				update(digest, mod.getModId());
+				update(digest, mod.getVersion());
+			}
+
+			final InputStream scrapData = DecompositionCache.class
+					.getResourceAsStream("/assets/recycling/data/scrapdata.cfg");
+			if (scrapData != null)
+				update(digest, scrapData);
+
+			// Any config file can change a recipe. A few are rewritten
+			// on every launch and would never let the cache hit.
+			final File configDir = Loader.instance().getConfigDir();
+			update(digest, configDir);
+			update(digest, new File(configDir.getParentFile(), "scripts"));
+
+			// Ore dictionary names and contents feed ore recipes
+			for (final String name : OreDictionaryHelper.getOreNames()) {
+				update(digest, name);
+				for (final ItemStack stack : OreDictionaryHelper.getOres(name))
+					update(digest, stack);
+			}
+
+			// The recipes themselves. Reading the inputs is cheap
+			// compared to the decomposition.
+			update(digest, Integer.toString(recipes.size()));
+			for (final Object o : recipes) {
+				final IRecipe recipe = (IRecipe) o;
+				update(digest, recipe.getClass().getName());
+				update(digest, recipe.getRecipeOutput());
+				for (final Field field : getInputFields(recipe.getClass()))
+					updateInput(digest, field.get(recipe), 0);
+			}
+
+			return digest.digest();
+
+		} catch (final Exception e) {
+			ModLog.warn("Unable to fingerprint recipe cache: %s", e.getMessage());
+		}
+
+		return null;
+	}
+
+	// Non-static fields of a recipe class and its parents that can hold
+	// inputs. Recipe classes vary too much between mods to name them.
+	private final Map<Class<?>, List<Field>> inputFields = new HashMap<Class<?>, List<Field>>();
+
+	private List<Field> getInputFields(final Class<?> clazz) {
+		List<Field> fields = inputFields.get(clazz);
+		if (fields == null) {
+			fields = new ArrayList<Field>();
+			for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (final Field f : c.getDeclaredFields()) {
+					if (Modifier.isStatic(f.getModifiers()) || f.getType().isPrimitive())
+						continue;
+					try {
+						f.setAccessible(true);
+						fields.add(f);
+					} catch (final Exception e) {
+						;
+					}
+				}
+			}
+			inputFields.put(clazz, fields);
+		}
+		return fields;
+	}
+
+	// Stacks and ore names are hashed, arrays and collections are walked
+	// a couple of levels deep, anything else is ignored.
+	private static void updateInput(final MessageDigest digest, final Object input, final int depth)
+			throws IOException {
+		if (input instanceof ItemStack) {
+			update(digest, (ItemStack) input);
+		} else if (input instanceof String) {
+			update(digest, (String) input);
+		} else if (depth < 3) {
+			if (input instanceof Object[]) {
+				for (final Object o : (Object[]) input)
+					updateInput(digest, o, depth + 1);
+			} else if (input instanceof Collection) {
+				for (final Object o : (Collection<?>) input)
+					updateInput(digest, o, depth + 1);
+			}
+		}
+	}
+
+	private static void update(final MessageDigest digest, final ItemStack stack) throws IOException {
+		if (stack == null || stack.getItem() == null) {
+			update(digest, "-");
+			return;
+		}
+		update(digest, Item.itemRegistry.getNameForObject(stack.getItem()));
+		update(digest, Integer.toString(ItemStackHelper.getItemDamage(stack)));
+		update(digest, Integer.toString(stack.stackSize));
+		if (stack.hasTagCompound())
+			update(digest, stack.getTagCompound().toString());
+	}
+
+	private static void update(final MessageDigest digest, final String s) throws IOException {
+		digest.update(String.valueOf(s).getBytes("UTF-8"));
+		digest.update((byte) 0);
+	}
+
+	private static void update(final MessageDigest digest, final InputStream in) throws IOException {
+		try {
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				digest.update(buffer, 0, read);
+		} finally {
+			in.close();
+		}
+	}
+
+	// Walks the directory in sorted order so the digest is stable
+	private void update(final MessageDigest digest, final File path) throws IOException {
+
+		if (path.isDirectory()) {
+			final File[] files = path.listFiles();
+			if (files == null)
+				return;
+			Arrays.sort(files);
+			for (final File f : files)
+				update(digest, f);
+		} else if (path.isFile() && !path.equals(file) && !VOLATILE_FILES.contains(path.getName())) {
+			update(digest, path.getName());
+			update(digest, new FileInputStream(path));
+		}
+	}
+}
@@ -28,6 +28,15 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.blockartistry.mod.ThermalRecycling.ModLog;
@@ -35,9 +44,11 @@ import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.data.ItemData;
 import org.blockartistry.mod.ThermalRecycling.util.InventoryHelper;
 import org.blockartistry.mod.ThermalRecycling.util.ItemStackHelper;
+import org.blockartistry.mod.ThermalRecycling.util.ItemStackIndex;
 import org.blockartistry.mod.ThermalRecycling.util.MyUtils;
 import org.blockartistry.mod.ThermalRecycling.util.OreDictionaryHelper;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import net.minecraft.item.ItemStack;
@@ -61,46 +72,169 @@ public final class RecipeDecomposition {
 					"codechicken.enderstorage.common.EnderStorageRecipe")
 			.build();
 	
-	private static final List<ItemStack> recipeComponentBlacklist = ImmutableList
-			.copyOf(ItemStackHelper.getItemStacks(ModOptions
-					.getRecipeComponentBlacklist()));
+	// Recipe component blacklist keyed by Item and damage. An entry
+	// with a wildcard damage value matches every subtype of the Item.
+	private static final ItemStackIndex<List<ItemStack>> recipeComponentBlacklist = compileBlacklist(
+			ItemStackHelper.getItemStacks(ModOptions.getRecipeComponentBlacklist()));
+
+	// Accessors are resolved lazily and can be hit by several
+	// decomposition threads at once. They are only published
+	// after setAccessible() so a reader never sees a Field it
+	// can't use.
+	private static volatile Field teRecipeAccessor = null;
+	private static volatile Field forestryRecipeAccessor = null;
+
+	private static volatile Field ae2ShapedRecipeAccessor = null;
+	private static volatile Field ae2ShapelessRecipeAccessor = null;
+	private static volatile Field ae2ItemNameAccessor = null;
+	private static volatile Field ae2NameSpaceAccessor = null;
+	private static volatile Field ae2MetaAccessor = null;
+	private static volatile Field ae2GroupIngredientInputAccessor = null;
+	private static volatile Field ae2IngredientSetInputAccessor = null;
+
+	// Output index used by findRecipe(). Guarded by the class lock.
+	private static ItemStackIndex<List<IRecipe>> outputIndex = null;
+	private static List<Object> indexedRecipes = null;
+	private static int indexedSize = -1;
+
+	private static final ThreadFactory threadFactory = new ThreadFactory() {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "ThermalRecycling Decomposition #" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	};
 
-	private static Field teRecipeAccessor = null;
-	private static Field forestryRecipeAccessor = null;
+	private static final IRecipeProjector NO_PROJECTION = new IRecipeProjector() {
+		@Override
+		public List<ItemStack> project(final IRecipe recipe) {
+			return null;
+		}
+	};
 
-	private static Field ae2ShapedRecipeAccessor = null;
-	private static Field ae2ShapelessRecipeAccessor = null;
-	private static Field ae2ItemNameAccessor = null;
-	private static Field ae2NameSpaceAccessor = null;
-	private static Field ae2MetaAccessor = null;
-	private static Field ae2GroupIngredientInputAccessor = null;
-	private static Field ae2IngredientSetInputAccessor = null;
+	private static final IRecipeProjector SHAPED = new IRecipeProjector() {
+		@Override
+		public List<ItemStack> project(final IRecipe recipe) {
+			return RecipeDecomposition.project((ShapedRecipes) recipe);
+		}
+	};
 
-	public static List<ItemStack> decompose(final IRecipe recipe) {
+	private static final IRecipeProjector SHAPELESS = new IRecipeProjector() {
+		@Override
+		public List<ItemStack> project(final IRecipe recipe) {
+			return RecipeDecomposition.project((ShapelessRecipes) recipe);
+		}
+	};
+
+	private static final IRecipeProjector SHAPED_ORE = new IRecipeProjector() {
+		@Override
+		public List<ItemStack> project(final IRecipe recipe) {
+			return RecipeDecomposition.project((ShapedOreRecipe) recipe);
+		}
+	};
+
+	private static final IRecipeProjector SHAPELESS_ORE = new IRecipeProjector() {
+		@Override
+		public List<ItemStack> project(final IRecipe recipe) {
+			return RecipeDecomposition.project((ShapelessOreRecipe) recipe);
+		}
+	};
+
+	// Projectors registered by class name. Mod recipe classes are
+	// registered by name so there is no hard dependency on the mod.
+	private static final Map<String, IRecipeProjector> registeredProjectors = new ConcurrentHashMap<String, IRecipeProjector>();
+
+	// Projector resolved for each recipe class that has been seen.
+	// Cleared whenever a projector is registered.
+	private static final Map<Class<?>, IRecipeProjector> projectors = new ConcurrentHashMap<Class<?>, IRecipeProjector>();
+
+	static {
+		registerProjector("cofh.thermalexpansion.plugins.nei.handlers.NEIRecipeWrapper", new IRecipeProjector() {
+			@Override
+			public List<ItemStack> project(final IRecipe recipe) {
+				return projectTERecipe(recipe);
+			}
+		});
+		registerProjector("forestry.core.utils.ShapedRecipeCustom", new IRecipeProjector() {
+			@Override
+			public List<ItemStack> project(final IRecipe recipe) {
+				return projectForestryRecipe(recipe);
+			}
+		});
+		registerProjector("appeng.recipes.game.ShapedRecipe", new IRecipeProjector() {
+			@Override
+			public List<ItemStack> project(final IRecipe recipe) {
+				return projectAE2ShapedRecipe(recipe);
+			}
+		});
+		registerProjector("appeng.recipes.game.ShapelessRecipe", new IRecipeProjector() {
+			@Override
+			public List<ItemStack> project(final IRecipe recipe) {
+				return projectAE2ShapelessRecipe(recipe);
+			}
+		});
+	}
+
+	/**
+	 * Registers a projector for the recipe class with the specified name. The
+	 * name has to match the recipe class exactly; subclasses are not covered.
+	 * A projector registered for a class replaces any existing one.
+	 * 
+	 * @param className
+	 *            Fully qualified name of the recipe class
+	 * @param projector
+	 *            Projector to use for recipes of that class
+	 */
+	public static void registerProjector(final String className, final IRecipeProjector projector) {
+		Preconditions.checkNotNull(className);
+		Preconditions.checkNotNull(projector);
+		registeredProjectors.put(className, projector);
+		projectors.clear();
+	}
+
+	public static void registerProjector(final Class<? extends IRecipe> clazz, final IRecipeProjector projector) {
+		Preconditions.checkNotNull(clazz);
+		registerProjector(clazz.getName(), projector);
+	}
+
+	private static IRecipeProjector resolveProjector(final Class<?> clazz) {
+
+		final IRecipeProjector registered = registeredProjectors.get(clazz.getName());
+		if (registered != null)
+			return registered;
+
+		if (ShapedRecipes.class.isAssignableFrom(clazz))
+			return SHAPED;
+		if (ShapelessRecipes.class.isAssignableFrom(clazz))
+			return SHAPELESS;
+		if (ShapedOreRecipe.class.isAssignableFrom(clazz))
+			return SHAPED_ORE;
+		if (ShapelessOreRecipe.class.isAssignableFrom(clazz))
+			return SHAPELESS_ORE;
 
-		List<ItemStack> projection = null;
-
-		if (recipe instanceof ShapedRecipes) {
-			projection = project((ShapedRecipes) recipe);
-		} else if (recipe instanceof ShapelessRecipes) {
-			projection = project((ShapelessRecipes) recipe);
-		} else if (recipe instanceof ShapedOreRecipe) {
-			projection = project((ShapedOreRecipe) recipe);
-		} else if (recipe instanceof ShapelessOreRecipe) {
-			projection = project((ShapelessOreRecipe) recipe);
-		} else if (matchClassName(recipe,
-				"cofh.thermalexpansion.plugins.nei.handlers.NEIRecipeWrapper")) {
-			projection = projectTERecipe(recipe);
-		} else if (matchClassName(recipe,
-				"forestry.core.utils.ShapedRecipeCustom")) {
-			projection = projectForestryRecipe(recipe);
-		} else if (matchClassName(recipe, "appeng.recipes.game.ShapedRecipe")) {
-			projection = projectAE2ShapedRecipe(recipe);
-		} else if (matchClassName(recipe, "appeng.recipes.game.ShapelessRecipe")) {
-			projection = projectAE2ShapelessRecipe(recipe);
-		} else if (!isClassIgnored(recipe)) {
-			ModLog.info("Unknown recipe class: %s", recipe.getClass().getName());
+		if (!classIgnoreList.contains(clazz.getName()))
+			ModLog.info("Unknown recipe class: %s", clazz.getName());
+
+		return NO_PROJECTION;
+	}
+
+	private static IRecipeProjector getProjector(final IRecipe recipe) {
+		final Class<?> clazz = recipe.getClass();
+		IRecipeProjector projector = projectors.get(clazz);
+		if (projector == null) {
+			projector = resolveProjector(clazz);
+			projectors.put(clazz, projector);
 		}
+		return projector;
+	}
+
+	public static List<ItemStack> decompose(final IRecipe recipe) {
+
+		List<ItemStack> projection = getProjector(recipe).project(recipe);
 
 		if (projection != null)
 			projection = scrubProjection(recipe.getRecipeOutput(), projection);
@@ -108,6 +242,106 @@ public final class RecipeDecomposition {
 		return projection;
 	}
 
+	/**
+	 * Decomposes a list of recipes, fanning the work out over the specified
+	 * number of threads. The result list is parallel to the input list, and a
+	 * recipe that cannot be decomposed has a null entry. Work that a worker
+	 * does not complete is redone on the calling thread, so the result always
+	 * covers every recipe. Registration of the results is left to the caller
+	 * so that it can happen in list order.
+	 * 
+	 * @param recipes
+	 *            Recipes to decompose
+	 * @param threads
+	 *            Number of worker threads; 1 or less decomposes on the
+	 *            calling thread
+	 * @return List of projections matching the order of recipes
+	 */
+	public static List<List<ItemStack>> decompose(final List<IRecipe> recipes, final int threads) {
+
+		@SuppressWarnings("unchecked")
+		final List<ItemStack>[] result = new List[recipes.size()];
+
+		if (threads <= 1 || recipes.size() < 2) {
+			for (int i = 0; i < result.length; i++)
+				result[i] = decomposeSafe(recipes.get(i));
+			return Arrays.asList(result);
+		}
+
+		// Several chunks per thread to even out the load - the
+		// mod specific recipe types are a lot more expensive
+		// than vanilla. Each chunk fills its own array that is
+		// handed back through the Future so that a chunk that
+		// fails can be redone without racing a straggling worker.
+		final int chunkSize = Math.max(1, (result.length + threads * 4 - 1) / (threads * 4));
+		final ExecutorService pool = Executors.newFixedThreadPool(threads, threadFactory);
+		final List<Future<List<ItemStack>[]>> jobs = new ArrayList<Future<List<ItemStack>[]>>();
+
+		try {
+
+			for (int start = 0; start < result.length; start += chunkSize) {
+				final int begin = start;
+				final int end = Math.min(start + chunkSize, result.length);
+				try {
+					jobs.add(pool.submit(new Callable<List<ItemStack>[]>() {
+						@Override
+						public List<ItemStack>[] call() {
+							@SuppressWarnings("unchecked")
+							final List<ItemStack>[] chunk = new List[end - begin];
+							for (int i = begin; i < end; i++)
+								chunk[i - begin] = decomposeSafe(recipes.get(i));
+							return chunk;
+						}
+					}));
+				} catch (final RejectedExecutionException e) {
+					ModLog.warn("Recipe decomposition job rejected: %s", e.getMessage());
+					jobs.add(null);
+				}
+			}
+
+			// Collect the chunks. Anything that did not complete is
+			// decomposed on this thread so the result is always whole.
+			for (int j = 0; j < jobs.size(); j++) {
+				final int begin = j * chunkSize;
+				final int end = Math.min(begin + chunkSize, result.length);
+
+				List<ItemStack>[] chunk = null;
+				final Future<List<ItemStack>[]> job = jobs.get(j);
+				if (job != null) {
+					try {
+						chunk = job.get();
+					} catch (final InterruptedException e) {
+						ModLog.warn("Parallel recipe decomposition interrupted");
+						Thread.currentThread().interrupt();
+					} catch (final Exception e) {
+						ModLog.warn("Parallel recipe decomposition failed: %s", e.getMessage());
+					}
+				}
+
+				if (chunk != null) {
+					System.arraycopy(chunk, 0, result, begin, end - begin);
+				} else {
+					for (int i = begin; i < end; i++)
+						result[i] = decomposeSafe(recipes.get(i));
+				}
+			}
+
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return Arrays.asList(result);
+	}
+
+	private static List<ItemStack> decomposeSafe(final IRecipe recipe) {
+		try {
+			return decompose(recipe);
+		} catch (final Throwable t) {
+			ModLog.warn("Unable to decompose recipe for [%s]", ItemStackHelper.resolveName(recipe.getRecipeOutput()));
+		}
+		return null;
+	}
+
 	public static List<ItemStack> decomposeBuildCraft(final ItemStack input,
 			final Object... output) {
 		List<ItemStack> projection = projectBuildcraftRecipeList(output);
@@ -128,21 +362,51 @@ public final class RecipeDecomposition {
 		return obj.getClass().getName().compareTo(name) == 0;
 	}
 
-	private static boolean isClassIgnored(final Object obj) {
-		return classIgnoreList.contains(obj.getClass().getName());
-	}
-
 	private static boolean notConsumed(final ItemStack stack) {
 		return stack.getItem().hasContainerItem(stack);
 	}
 	
-	private static boolean ignoreRecipe(final List<ItemStack> projection) {
-		
-		for(final ItemStack p: projection)
-			for(final ItemStack s: recipeComponentBlacklist)
-				if(ItemStackHelper.areEqual(p, s))
+	private static ItemStackIndex<List<ItemStack>> compileBlacklist(final List<ItemStack> stacks) {
+
+		final ItemStackIndex<List<ItemStack>> index = new ItemStackIndex<List<ItemStack>>(stacks.size());
+
+		for (final ItemStack stack : stacks) {
+			final int meta = ItemStackHelper.getItemDamage(stack);
+			List<ItemStack> list = index.get(stack.getItem(), meta);
+			if (list == null) {
+				list = new ArrayList<ItemStack>(1);
+				index.put(stack.getItem(), meta, list);
+			}
+			list.add(stack);
+		}
+
+		return index;
+	}
+
+	private static boolean isBlacklisted(final ItemStack stack, final int meta) {
+		final List<ItemStack> entries = recipeComponentBlacklist.get(stack.getItem(), meta);
+		if (entries != null)
+			for (final ItemStack e : entries)
+				if (ItemStackHelper.areTagsEqual(stack.stackTagCompound, e.stackTagCompound))
 					return true;
-		
+		return false;
+	}
+
+	private static boolean ignoreRecipe(final List<ItemStack> projection) {
+
+		if (recipeComponentBlacklist.size() == 0)
+			return false;
+
+		for (final ItemStack p : projection) {
+			if (p == null || p.getItem() == null)
+				continue;
+			final int meta = ItemStackHelper.getItemDamage(p);
+			if (isBlacklisted(p, meta))
+				return true;
+			if (meta != OreDictionaryHelper.WILDCARD_VALUE && isBlacklisted(p, OreDictionaryHelper.WILDCARD_VALUE))
+				return true;
+		}
+
 		return false;
 	}
 	
@@ -301,9 +565,10 @@ public final class RecipeDecomposition {
 	private static Object getFromGroupIngredient(final Object input)
 			throws Throwable {
 		if (ae2GroupIngredientInputAccessor == null) {
-			ae2GroupIngredientInputAccessor = input.getClass()
+			final Field temp = input.getClass()
 					.getDeclaredField("ingredients");
-			ae2GroupIngredientInputAccessor.setAccessible(true);
+			temp.setAccessible(true);
+			ae2GroupIngredientInputAccessor = temp;
 		}
 
 		final Object result = ((List<?>) ae2GroupIngredientInputAccessor
@@ -318,9 +583,10 @@ public final class RecipeDecomposition {
 	private static ItemStack getFromIngredientSet(final Object input)
 			throws Throwable {
 		if (ae2IngredientSetInputAccessor == null) {
-			ae2IngredientSetInputAccessor = input.getClass().getDeclaredField(
+			final Field temp = input.getClass().getDeclaredField(
 					"items");
-			ae2IngredientSetInputAccessor.setAccessible(true);
+			temp.setAccessible(true);
+			ae2IngredientSetInputAccessor = temp;
 		}
 
 		final List<ItemStack> list = (List<ItemStack>) ae2IngredientSetInputAccessor
@@ -356,17 +622,22 @@ public final class RecipeDecomposition {
 						} else {
 
 							if (ae2ItemNameAccessor == null) {
-								ae2ItemNameAccessor = o.getClass()
-										.getDeclaredField("itemName");
-								ae2ItemNameAccessor.setAccessible(true);
-
-								ae2NameSpaceAccessor = o.getClass()
+								final Field nameSpace = o.getClass()
 										.getDeclaredField("nameSpace");
-								ae2NameSpaceAccessor.setAccessible(true);
+								nameSpace.setAccessible(true);
 
-								ae2MetaAccessor = o.getClass()
+								final Field meta = o.getClass()
 										.getDeclaredField("meta");
-								ae2MetaAccessor.setAccessible(true);
+								meta.setAccessible(true);
+
+								final Field itemName = o.getClass()
+										.getDeclaredField("itemName");
+								itemName.setAccessible(true);
+
+								// itemName is the guard so it goes last
+								ae2NameSpaceAccessor = nameSpace;
+								ae2MetaAccessor = meta;
+								ae2ItemNameAccessor = itemName;
 							}
 
 							final String nameSpace = (String) ae2NameSpaceAccessor
@@ -423,9 +694,10 @@ public final class RecipeDecomposition {
 		try {
 
 			if (ae2ShapelessRecipeAccessor == null) {
-				ae2ShapelessRecipeAccessor = recipe.getClass()
+				final Field temp = recipe.getClass()
 						.getDeclaredField("input");
-				ae2ShapelessRecipeAccessor.setAccessible(true);
+				temp.setAccessible(true);
+				ae2ShapelessRecipeAccessor = temp;
 			}
 
 			return projectAE2Recipe((List<?>) ae2ShapelessRecipeAccessor
@@ -443,9 +715,10 @@ public final class RecipeDecomposition {
 		try {
 
 			if (ae2ShapedRecipeAccessor == null) {
-				ae2ShapedRecipeAccessor = recipe.getClass().getDeclaredField(
+				final Field temp = recipe.getClass().getDeclaredField(
 						"input");
-				ae2ShapedRecipeAccessor.setAccessible(true);
+				temp.setAccessible(true);
+				ae2ShapedRecipeAccessor = temp;
 			}
 
 			return projectAE2Recipe(Arrays
@@ -458,17 +731,70 @@ public final class RecipeDecomposition {
 		return new ArrayList<ItemStack>();
 	}
 
-	public static IRecipe findRecipe(final ItemStack stack) {
+	/**
+	 * Locates the first crafting recipe, in recipe list order, whose output
+	 * matches the specified ItemStack. Recipes are located through an index
+	 * keyed by output Item and metadata that is built on first use. A
+	 * wildcard ItemStack matches recipes that produce a wildcard output, same
+	 * as a direct comparison would. The index is rebuilt if the recipe list is
+	 * replaced or changes size, or after invalidateOutputIndex() is called.
+	 */
+	public static synchronized IRecipe findRecipe(final ItemStack stack) {
+
+		if (stack == null || stack.getItem() == null)
+			return null;
 
-		for (final Object o : CraftingManager.getInstance().getRecipeList()) {
-			final IRecipe r = (IRecipe) o;
-			// craftingEquivalent
-			if(ItemStackHelper.areEqual(stack, r.getRecipeOutput()))
-				return r;
-			//if (ItemHelper.itemsEqualForCrafting(stack, r.getRecipeOutput()))
-			//	return r;
-		}
+		final List<IRecipe> candidates = getOutputIndex().get(stack.getItem(),
+				ItemStackHelper.getItemDamage(stack));
+
+		if (candidates != null)
+			for (final IRecipe r : candidates)
+				if (ItemStackHelper.areEqual(stack, r.getRecipeOutput()))
+					return r;
 
 		return null;
 	}
+
+	/**
+	 * Discards the output index used by findRecipe(). Needed when recipes
+	 * are swapped without the list changing size, such as when MineTweaker
+	 * reloads its scripts.
+	 */
+	public static synchronized void invalidateOutputIndex() {
+		outputIndex = null;
+		indexedRecipes = null;
+		indexedSize = -1;
+	}
+
+	private static ItemStackIndex<List<IRecipe>> getOutputIndex() {
+
+		@SuppressWarnings("unchecked")
+		final List<Object> recipes = CraftingManager.getInstance().getRecipeList();
+
+		if (outputIndex == null || indexedRecipes != recipes || indexedSize != recipes.size()) {
+
+			final ItemStackIndex<List<IRecipe>> index = new ItemStackIndex<List<IRecipe>>(recipes.size());
+
+			for (final Object o : recipes) {
+				final IRecipe r = (IRecipe) o;
+				final ItemStack output = r.getRecipeOutput();
+				if (output == null || output.getItem() == null)
+					continue;
+
+				final int meta = ItemStackHelper.getItemDamage(output);
+				List<IRecipe> list = index.get(output.getItem(), meta);
+				if (list == null) {
+					list = new ArrayList<IRecipe>(1);
+					index.put(output.getItem(), meta, list);
+				}
+				list.add(r);
+			}
+
+			outputIndex = index;
+			indexedRecipes = recipes;
+			indexedSize = recipes.size();
+		}
+
+		return outputIndex;
+	}
 }
@@ -24,8 +24,12 @@
 package org.blockartistry.mod.ThermalRecycling.tweaker;
 
 import minetweaker.MineTweakerAPI;
+import minetweaker.MineTweakerImplementationAPI;
+import minetweaker.MineTweakerImplementationAPI.ReloadEvent;
+import minetweaker.util.IEventHandler;
 
 import org.blockartistry.mod.ThermalRecycling.ModLog;
+import org.blockartistry.mod.ThermalRecycling.support.recipe.RecipeDecomposition;
 import cpw.mods.fml.common.Loader;
 
 public final class MineTweakerSupport {
@@ -49,6 +53,15 @@ public final class MineTweakerSupport {
 
 			// Register the constants
 			Constants.register();
+
+			// A reload can swap recipes without changing the size
+			// of the recipe list
+			MineTweakerImplementationAPI.onPostReload(new IEventHandler<ReloadEvent>() {
+				@Override
+				public void handle(final ReloadEvent event) {
+					RecipeDecomposition.invalidateOutputIndex();
+				}
+			});
 		}
 	}
 }
@@ -46,7 +46,7 @@ public final class ItemStackHelper {
 
 	private ItemStackHelper() { }
 	
-	protected static final Random rand = XorShiftRandom.shared;
+	protected static final Random rand = SplitMixRandom.shared;
 
 	public static Optional<ItemStack> convertToDustIfPossible(final ItemStack stack) {
 
@@ -0,0 +1,174 @@
+/* This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.ThermalRecycling.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Open addressing table keyed by Item and metadata. Intended for read mostly
+ * data that is built once and then queried on hot paths - a lookup does not
+ * box, allocate a key object, or chase a bucket chain.
+ * 
+ * The Item reference is used rather than the registry ID because FML can
+ * remap IDs when a world is loaded.
+ */
+public final class ItemStackIndex<T> {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private Item[] items;
+	private int[] metas;
+	private Object[] values;
+	private int mask;
+	private int size;
+
+	public ItemStackIndex() {
+		this(MIN_CAPACITY);
+	}
+
+	public ItemStackIndex(final int expected) {
+		allocate(capacityFor(expected));
+	}
+
+	private static int capacityFor(final int expected) {
+		// Keep the load factor at or below 50% so probe
+		// sequences stay short.
+		int capacity = MIN_CAPACITY;
+		while (capacity < expected * 2)
+			capacity <<= 1;
+		return capacity;
+	}
+
+	private void allocate(final int capacity) {
+		items = new Item[capacity];
+		metas = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	// Murmur3 finalizer - identity hashes tend to be clustered
+	private static int hash(final Item item, final int meta) {
+		int h = System.identityHashCode(item) * 31 + meta;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * Metadata value used when indexing an ItemStack. Items that do not have
+	 * subtypes always index with a metadata of 0.
+	 */
+	public static int getMeta(final ItemStack stack) {
+		return stack.getHasSubtypes() ? ItemStackHelper.getItemDamage(stack) : 0;
+	}
+
+	/**
+	 * Metadata value used for the generic entry of an Item.
+	 */
+	public static int getGenericMeta(final Item item) {
+		return item.getHasSubtypes() ? OreDictionaryHelper.WILDCARD_VALUE : 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(final Item item, final int meta) {
+		if (item == null)
+			return null;
+
+		for (int i = hash(item, meta) & mask;; i = (i + 1) & mask) {
+			final Item candidate = items[i];
+			if (candidate == null)
+				return null;
+			if (candidate == item && metas[i] == meta)
+				return (T) values[i];
+		}
+	}
+
+	public T get(final ItemStack stack) {
+		return get(stack.getItem(), getMeta(stack));
+	}
+
+	public T getGeneric(final Item item) {
+		return get(item, getGenericMeta(item));
+	}
+
+	@SuppressWarnings("unchecked")
+	public T put(final Item item, final int meta, final T value) {
+		assert item != null;
+		assert value != null;
+
+		if ((size + 1) * 2 > items.length)
+			rehash(items.length << 1);
+
+		int i = hash(item, meta) & mask;
+		for (; items[i] != null; i = (i + 1) & mask) {
+			if (items[i] == item && metas[i] == meta) {
+				final T old = (T) values[i];
+				values[i] = value;
+				return old;
+			}
+		}
+
+		items[i] = item;
+		metas[i] = meta;
+		values[i] = value;
+		size++;
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rehash(final int capacity) {
+		final Item[] oldItems = items;
+		final int[] oldMetas = metas;
+		final Object[] oldValues = values;
+
+		allocate(capacity);
+		for (int i = 0; i < oldItems.length; i++)
+			if (oldItems[i] != null)
+				put(oldItems[i], oldMetas[i], (T) oldValues[i]);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a snapshot of the values contained in the index.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> values() {
+		final List<T> result = new ArrayList<T>(size);
+		for (int i = 0; i < values.length; i++)
+			if (items[i] != null)
+				result.add((T) values[i]);
+		return result;
+	}
+}
@@ -102,6 +102,14 @@ public final class ItemStackKey {
 		this(stack.getItem(), ItemStackHelper.getItemDamage(stack));
 	}
 
+	public Item getItem() {
+		return item;
+	}
+
+	public int getMeta() {
+		return meta;
+	}
+
 	@Override
 	public int hashCode() {
 		return hash;
@@ -23,25 +23,47 @@
 
 package org.blockartistry.mod.ThermalRecycling.util;
 
+import java.text.DecimalFormat;
+import java.util.List;
 import java.util.Random;
 
 import org.blockartistry.mod.ThermalRecycling.ModLog;
 import org.blockartistry.mod.ThermalRecycling.data.ScrappingTables;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.StatCollector;
 
 public final class ItemStackWeightTable extends
 		WeightTable<ItemStackWeightTable.ItemStackItem> {
 
+	/**
+	 * What happens to the input when an entry is selected. DESTROY, KEEP and
+	 * DUST act on the item being scrapped; ITEM produces the entry's stack.
+	 */
+	public static enum Kind {
+		DESTROY, KEEP, DUST, ITEM
+	}
+
 	public final static class ItemStackItem extends WeightTable.Item {
 
 		protected final ItemStack stack;
+		public final Kind kind;
 
 		public ItemStackItem(final ItemStack stack, final int weight) {
 			super(weight);
 			this.stack = stack;
+
+			if (ScrappingTables.destroyIt(stack))
+				this.kind = Kind.DESTROY;
+			else if (ScrappingTables.keepIt(stack))
+				this.kind = Kind.KEEP;
+			else if (ScrappingTables.dustIt(stack))
+				this.kind = Kind.DUST;
+			else
+				this.kind = Kind.ITEM;
 		}
 
 		public ItemStack getStack() {
@@ -51,20 +73,82 @@ public final class ItemStackWeightTable extends
 		@Override
 		public String toString() {
 
-			String name = "Destroy";
-			if (stack != null) {
-				if (ScrappingTables.keepIt(stack))
-					name = "Keep Item";
-				else if (ScrappingTables.dustIt(stack))
-					name = "Dust Item";
-				else
-					name = ItemStackHelper.resolveName(stack);
+			switch (kind) {
+			case DESTROY:
+				return "Destroy";
+			case KEEP:
+				return "Keep Item";
+			case DUST:
+				return "Dust Item";
+			default:
+				return ItemStackHelper.resolveName(stack);
+			}
+		}
+	}
+
+	private static final String loreDestroy = StatCollector.translateToLocal("msg.ScrapPreview.destroy");
+	private static final String loreKeep = StatCollector.translateToLocal("msg.ScrapPreview.keep");
+	private static final String loreDust = StatCollector.translateToLocal("msg.ScrapPreview.dust");
+	private static final String loreDebris = StatCollector.translateToLocal("item.Debris.debris.name");
+	private static final String lorePoorScrap = StatCollector.translateToLocal("item.RecyclingScrap.poor.name");
+	private static final String loreStandardScrap = StatCollector.translateToLocal("item.RecyclingScrap.standard.name");
+	private static final String loreSuperiorScrap = StatCollector.translateToLocal("item.RecyclingScrap.superior.name");
+	private static final String loreChance = "chance";
+
+	/**
+	 * Lore text for the table. Built once and replaced as a whole when the
+	 * table changes so readers on the client and server threads always see
+	 * a complete, immutable copy.
+	 */
+	private static final class Lore {
+
+		public final List<String> outcomes;
+		public final List<List<String>> chances;
+
+		public Lore(final List<ItemStackItem> entries, final long totalWeight) {
+
+			// Formatters are not thread safe; this one is private
+			// to the build.
+			final DecimalFormat formatter = new DecimalFormat("0.0% ");
+			final ImmutableList.Builder<String> outcomes = ImmutableList.builder();
+			final ImmutableList.Builder<List<String>> chances = ImmutableList.builder();
+
+			for (final ItemStackItem w : entries) {
+				final String percent = formatter.format((double) w.itemWeight / totalWeight);
+				outcomes.add(percent + getOutcomeName(w));
+				chances.add(ImmutableList.of(percent + loreChance));
 			}
 
-			return name;
+			this.outcomes = outcomes.build();
+			this.chances = chances.build();
+		}
+
+		private static String getOutcomeName(final ItemStackItem item) {
+			switch (item.kind) {
+			case DESTROY:
+				return loreDestroy;
+			case KEEP:
+				return loreKeep;
+			case DUST:
+				return loreDust;
+			default:
+				break;
+			}
+			final ItemStack stack = item.stack;
+			if (stack.isItemEqual(ScrappingTables.debris))
+				return loreDebris;
+			if (stack.isItemEqual(ScrappingTables.poorScrap))
+				return lorePoorScrap;
+			if (stack.isItemEqual(ScrappingTables.standardScrap))
+				return loreStandardScrap;
+			if (stack.isItemEqual(ScrappingTables.superiorScrap))
+				return loreSuperiorScrap;
+			return "UNKNOWN";
 		}
 	}
 
+	private volatile Lore lore = null;
+
 	public ItemStackWeightTable() {
 		super();
 	}
@@ -73,6 +157,50 @@ public final class ItemStackWeightTable extends
 		super(rand);
 	}
 
+	@Override
+	public void add(final ItemStackItem entry) {
+		super.add(entry);
+		lore = null;
+	}
+
+	@Override
+	public void remove(final ItemStackItem entry) {
+		super.remove(entry);
+		lore = null;
+	}
+
+	@Override
+	public void freeze() {
+		super.freeze();
+		getLoreData();
+	}
+
+	private Lore getLoreData() {
+		Lore result = lore;
+		if (result == null) {
+			result = new Lore(items, totalWeight);
+			lore = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Lore lines describing each possible outcome of the table along with
+	 * its percentage chance. The list is immutable and parallel to
+	 * getEntries().
+	 */
+	public List<String> getLore() {
+		return getLoreData().outcomes;
+	}
+
+	/**
+	 * Single line lore stating the percentage chance of the specified
+	 * entry. The list is immutable.
+	 */
+	public List<String> getChanceLore(final int index) {
+		return getLoreData().chances.get(index);
+	}
+
 	public Optional<ItemStack> nextStack() {
 		try {
 			return Optional.fromNullable(next().getStack());
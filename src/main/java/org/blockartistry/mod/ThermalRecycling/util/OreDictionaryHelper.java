@@ -31,6 +31,10 @@ import net.minecraftforge.oredict.OreDictionary;
 /**
  * Wraps the Forge OreDictonary implementation.  Used as a insulator to
  * better support integration of Forge updates.
+ * 
+ * Access to the OreDictionary is serialized.  Looking up an unknown
+ * ore name registers it, so a plain read is not safe when recipes
+ * are being decomposed on several threads.
  */
 public final class OreDictionaryHelper {
 	
@@ -44,7 +48,7 @@ public final class OreDictionaryHelper {
 	 * @param name
 	 * @return
 	 */
-	public static List<ItemStack> getOres(final String name) {
+	public static synchronized List<ItemStack> getOres(final String name) {
 		return OreDictionary.getOres(name);
 	}
 	
@@ -54,7 +58,7 @@ public final class OreDictionaryHelper {
 	 * 
 	 * @return
 	 */
-	public static String[] getOreNames() {
+	public static synchronized String[] getOreNames() {
 		return OreDictionary.getOreNames();
 	}
 	
@@ -65,7 +69,7 @@ public final class OreDictionaryHelper {
 	 * @param stack
 	 * @return
 	 */
-	public static int[] getOreIDs(final ItemStack stack) {
+	public static synchronized int[] getOreIDs(final ItemStack stack) {
 		return OreDictionary.getOreIDs(stack);
 	}
 	
@@ -107,7 +111,7 @@ public final class OreDictionaryHelper {
 	 * @return
 	 */
 	@SuppressWarnings("deprecation")
-	public static String getOreName(final ItemStack itemstack) {
+	public static synchronized String getOreName(final ItemStack itemstack) {
 		return OreDictionary.getOreName(OreDictionary.getOreID(itemstack));
 	}
 	
@@ -117,7 +121,7 @@ public final class OreDictionaryHelper {
 	 * @param id
 	 * @return
 	 */
-	public static String getOreName(final int id) {
+	public static synchronized String getOreName(final int id) {
 		return OreDictionary.getOreName(id);
 	}
 }
@@ -0,0 +1,162 @@
+/* This file is part of ThermalRecycling, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.mod.ThermalRecycling.util;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SplitMix64 based random source. An instance is a single stream and is meant
+ * to be owned by one thread, such as a TileEntity on the server thread, so it
+ * does not synchronize. Independent streams are created by split(), or derived
+ * from a world seed and block position.
+ * 
+ * Code that does not own a stream can use shared, which hands each thread its
+ * own stream. It is lock free and the client and server threads never touch
+ * the same state.
+ */
+public class SplitMixRandom extends Random {
+
+	private static final long serialVersionUID = -4262584713372474381L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	// Source of seeds for the per-thread streams
+	private static final AtomicLong seeder = new AtomicLong(mix64(System.currentTimeMillis())
+			^ mix64(System.nanoTime()));
+
+	private static final ThreadLocal<SplitMixRandom> perThread = new ThreadLocal<SplitMixRandom>() {
+		@Override
+		protected SplitMixRandom initialValue() {
+			final long s = seeder.getAndAdd(GOLDEN_GAMMA << 1);
+			return new SplitMixRandom(mix64(s), mixGamma(s + GOLDEN_GAMMA));
+		}
+	};
+
+	/**
+	 * Random that draws from the calling thread's stream. Safe to keep in a
+	 * static field and use from any thread.
+	 */
+	public static final Random shared = new Random() {
+
+		private static final long serialVersionUID = 4185621460412733361L;
+
+		@Override
+		protected int next(final int bits) {
+			return current().next(bits);
+		}
+
+		@Override
+		public long nextLong() {
+			return current().nextLong();
+		}
+
+		@Override
+		public synchronized void setSeed(final long seed) {
+			// Per-thread streams are not reseeded
+		}
+	};
+
+	private long seed;
+	private final long gamma;
+
+	public SplitMixRandom() {
+		this(seeder.getAndAdd(GOLDEN_GAMMA << 1));
+	}
+
+	public SplitMixRandom(final long seed) {
+		this(mix64(seed), GOLDEN_GAMMA);
+	}
+
+	private SplitMixRandom(final long seed, final long gamma) {
+		super(0);
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Returns the stream for the calling thread.
+	 */
+	public static SplitMixRandom current() {
+		return perThread.get();
+	}
+
+	/**
+	 * Creates a stream for a block position. The same world seed and
+	 * position always produce the same stream, and neighboring positions
+	 * produce unrelated ones.
+	 */
+	public static SplitMixRandom forPosition(final long worldSeed, final int dimension, final int x, final int y,
+			final int z) {
+		long h = mix64(worldSeed ^ GOLDEN_GAMMA);
+		h = mix64(h + dimension);
+		h = mix64(h + x);
+		h = mix64(h + y);
+		h = mix64(h + z);
+		return new SplitMixRandom(h, mixGamma(h + GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates a new stream that is statistically independent of this one.
+	 */
+	public SplitMixRandom split() {
+		return new SplitMixRandom(mix64(nextSeed()), mixGamma(nextSeed()));
+	}
+
+	private long nextSeed() {
+		return seed += gamma;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	// Gammas must be odd and have enough bit transitions to
+	// produce a good stream.
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		final int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+	@Override
+	public void setSeed(final long seed) {
+		// Called by the Random constructor before the fields are set
+		this.seed = mix64(seed);
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return (int) (mix64(nextSeed()) >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+}
@@ -30,13 +30,23 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Weighted random selection table. Selection uses the alias method so that a
+ * roll costs the same regardless of the number of entries. The alias table is
+ * compiled when the owning registry is frozen, or on the first roll after the
+ * table has been modified.
+ */
 public class WeightTable<T extends WeightTable.Item> {
 
-	protected static final Random random = XorShiftRandom.shared;
+	protected static final Random random = SplitMixRandom.shared;
 
 	protected final List<T> items = new ArrayList<T>();
 	protected final Random rand;
-	protected int totalWeight = 0;
+	protected long totalWeight = 0;
+
+	// Compiled form of the table. Replaced as a whole so a reader
+	// always sees a consistent snapshot.
+	private volatile AliasTable alias = null;
 
 	public abstract static class Item implements Cloneable {
 
@@ -54,6 +64,72 @@ public class WeightTable<T extends WeightTable.Item> {
 		}
 	}
 
+	/**
+	 * Vose's alias method using integer thresholds. Each of the n columns
+	 * has a capacity of totalWeight, and a column keeps its own entry when
+	 * the roll is below its threshold. Weights are scaled by n so the
+	 * thresholds are exact and the distribution matches a linear walk.
+	 */
+	private static final class AliasTable {
+
+		final Object[] entries;
+		final long[] threshold;
+		final int[] alias;
+		final long total;
+
+		AliasTable(final List<?> items, final long total) {
+
+			final int n = items.size();
+			this.entries = items.toArray();
+			this.threshold = new long[n];
+			this.alias = new int[n];
+			this.total = total;
+
+			final long[] scaled = new long[n];
+			final int[] small = new int[n];
+			final int[] large = new int[n];
+			int smallCount = 0;
+			int largeCount = 0;
+
+			for (int i = 0; i < n; i++) {
+				scaled[i] = (long) ((Item) entries[i]).itemWeight * n;
+				if (scaled[i] < total)
+					small[smallCount++] = i;
+				else
+					large[largeCount++] = i;
+			}
+
+			while (smallCount > 0 && largeCount > 0) {
+				final int s = small[--smallCount];
+				final int l = large[--largeCount];
+				threshold[s] = scaled[s];
+				alias[s] = l;
+				scaled[l] -= total - scaled[s];
+				if (scaled[l] < total)
+					small[smallCount++] = l;
+				else
+					large[largeCount++] = l;
+			}
+
+			// Whatever is left fills its column completely
+			while (largeCount > 0) {
+				final int l = large[--largeCount];
+				threshold[l] = total;
+				alias[l] = l;
+			}
+			while (smallCount > 0) {
+				final int s = small[--smallCount];
+				threshold[s] = total;
+				alias[s] = s;
+			}
+		}
+
+		int nextIndex(final Random rand) {
+			final int column = rand.nextInt(entries.length);
+			return nextLong(rand, total) < threshold[column] ? column : alias[column];
+		}
+	}
+
 	public WeightTable() {
 		this(null);
 	}
@@ -72,35 +148,261 @@ public class WeightTable<T extends WeightTable.Item> {
 		totalWeight += entry.itemWeight;
 		entry.rnd = rand;
 		items.add(entry);
+		alias = null;
 	}
 
 	public void remove(final T entry) {
-		if(items.remove(entry))
+		if(items.remove(entry)) {
 			totalWeight -= entry.itemWeight;
+			alias = null;
+		}
 	}
 
-	public T next() throws Exception {
+	/**
+	 * Compiles the table for selection. Called when the registry that owns
+	 * the table is frozen so the work is not done on the first roll.
+	 */
+	public void freeze() {
+		if (alias == null && totalWeight > 0 && !items.isEmpty())
+			alias = new AliasTable(items, totalWeight);
+	}
+
+	/**
+	 * Returns a uniform value in the range [0, bound).
+	 */
+	protected static long nextLong(final Random rand, final long bound) {
+		if (bound <= Integer.MAX_VALUE)
+			return rand.nextInt((int) bound);
+
+		// Rejection sampling over 63 bits to avoid modulo bias
+		long bits, val;
+		do {
+			bits = rand.nextLong() >>> 1;
+			val = bits % bound;
+		} while (bits - val + (bound - 1) < 0);
+		return val;
+	}
+
+	private AliasTable getAliasTable() throws Exception {
 
 		assert totalWeight > 0;
 		assert items != null && !items.isEmpty();
 		
 		if(totalWeight < 1 || items == null || items.isEmpty())
 			throw new Exception("WeightTable not properly initialized");
-		
-		int targetWeight = rand.nextInt(totalWeight);
 
-		int i = 0;
-		for (i = items.size(); (targetWeight -= items.get(i - 1).itemWeight) >= 0; i--)
-			;
+		AliasTable table = alias;
+		if (table == null) {
+			table = new AliasTable(items, totalWeight);
+			alias = table;
+		}
+
+		return table;
+	}
+
+	public T next() throws Exception {
+		return next(rand);
+	}
+
+	/**
+	 * Selects an entry using the specified random stream rather than the
+	 * one the table was created with. Tables are shared between machines so
+	 * a machine passes its own stream.
+	 */
+	@SuppressWarnings("unchecked")
+	public T next(final Random random) throws Exception {
+		final AliasTable table = getAliasTable();
+		return (T) table.entries[table.nextIndex(random)];
+	}
+
+	/**
+	 * Selects an entry and returns its position in the list returned by
+	 * getEntries(). Allows callers to tally results without touching the
+	 * entry itself.
+	 */
+	public int nextIndex() throws Exception {
+		return nextIndex(rand);
+	}
+
+	public int nextIndex(final Random random) throws Exception {
+		return getAliasTable().nextIndex(random);
+	}
+
+	/**
+	 * Rolls the table the specified number of times and adds the number of
+	 * times each entry was selected to the histogram, which is indexed the
+	 * same as getEntries(). Large roll counts are drawn as a multinomial by
+	 * splitting the count across the entries with binomial draws, each of
+	 * which takes constant expected time, so the cost follows the number of
+	 * entries rather than the number of rolls.
+	 * The distribution is the same as calling nextIndex() repeatedly.
+	 */
+	public void next(final int rolls, final int[] histogram) throws Exception {
+		next(rolls, histogram, rand);
+	}
+
+	public void next(final int rolls, final int[] histogram, final Random random) throws Exception {
+
+		final AliasTable table = getAliasTable();
+		final int n = table.entries.length;
+
+		if (rolls <= n) {
+			for (int i = 0; i < rolls; i++)
+				histogram[table.nextIndex(random)]++;
+			return;
+		}
+
+		int remaining = rolls;
+		long remainingWeight = table.total;
+		for (int i = 0; i < n - 1 && remaining > 0; i++) {
+			final int weight = ((Item) table.entries[i]).itemWeight;
+			final int count = binomial(random, remaining, (double) weight / remainingWeight);
+			histogram[i] += count;
+			remaining -= count;
+			remainingWeight -= weight;
+		}
+
+		histogram[n - 1] += remaining;
+	}
+
+	/**
+	 * Draws from a binomial distribution. Small means are drawn by inversion,
+	 * which walks about trials*p steps. Larger ones use the BTPE rejection
+	 * sampler (Kachitvichyanukul and Schmeiser, 1988), which takes constant
+	 * expected time regardless of the number of trials.
+	 */
+	protected static int binomial(final Random rand, final int trials, final double p) {
+
+		if (trials <= 0 || p <= 0.0D)
+			return 0;
+		if (p >= 1.0D)
+			return trials;
+		if (p > 0.5D)
+			return trials - binomial(rand, trials, 1.0D - p);
+		if (trials * p >= 30.0D)
+			return btpe(rand, trials, p);
+
+		final double q = 1.0D - p;
+		final double s = p / q;
+		final double a = (trials + 1) * s;
+		double f = Math.pow(q, trials);
+		double u = rand.nextDouble();
+		int x = 0;
 
-		return items.get(i - 1);
+		while (u > f && x < trials) {
+			u -= f;
+			x++;
+			f *= a / x - s;
+		}
+
+		return x;
+	}
+
+	// Stirling series correction used by the final BTPE acceptance test
+	private static double stirling(final double x) {
+		final double x2 = x * x;
+		return (13680.0D - (462.0D - (132.0D - (99.0D - 140.0D / x2) / x2) / x2) / x2) / x / 166320.0D;
+	}
+
+	/**
+	 * BTPE for p <= 0.5 and trials * p >= 30. The hat function is a triangle
+	 * over the mode, two parallelograms beside it and exponential tails. Most
+	 * draws are accepted from the triangle without further work.
+	 */
+	private static int btpe(final Random rand, final int n, final double p) {
+
+		final double q = 1.0D - p;
+		final double npq = n * p * q;
+		final double fm = n * p + p;
+		final int m = (int) fm;
+
+		final double p1 = Math.floor(2.195D * Math.sqrt(npq) - 4.6D * q) + 0.5D;
+		final double xm = m + 0.5D;
+		final double xl = xm - p1;
+		final double xr = xm + p1;
+		final double c = 0.134D + 20.5D / (15.3D + m);
+		double a = (fm - xl) / (fm - xl * p);
+		final double laml = a * (1.0D + a / 2.0D);
+		a = (xr - fm) / (xr * q);
+		final double lamr = a * (1.0D + a / 2.0D);
+		final double p2 = p1 * (1.0D + 2.0D * c);
+		final double p3 = p2 + c / laml;
+		final double p4 = p3 + c / lamr;
+
+		for (;;) {
+
+			final double u = rand.nextDouble() * p4;
+			double v = rand.nextDouble();
+			final int y;
+
+			if (u <= p1) {
+				// Triangle - accepted outright
+				return (int) Math.floor(xm - p1 * v + u);
+			} else if (u <= p2) {
+				// Parallelograms
+				final double x = xl + (u - p1) / c;
+				v = v * c + 1.0D - Math.abs(m - x + 0.5D) / p1;
+				if (v > 1.0D)
+					continue;
+				y = (int) Math.floor(x);
+			} else if (u <= p3) {
+				// Left tail
+				y = (int) Math.floor(xl + Math.log(v) / laml);
+				if (y < 0)
+					continue;
+				v = v * (u - p2) * laml;
+			} else {
+				// Right tail
+				y = (int) Math.floor(xr - Math.log(v) / lamr);
+				if (y > n)
+					continue;
+				v = v * (u - p3) * lamr;
+			}
+
+			final int k = Math.abs(y - m);
+			if (k <= 20 || k >= npq / 2.0D - 1.0D) {
+				// Close to the mode f(y)/f(m) is cheap to compute exactly
+				final double s = p / q;
+				final double b = s * (n + 1);
+				double f = 1.0D;
+				if (m < y) {
+					for (int i = m + 1; i <= y; i++)
+						f *= b / i - s;
+				} else if (m > y) {
+					for (int i = y + 1; i <= m; i++)
+						f /= b / i - s;
+				}
+				if (v <= f)
+					return y;
+				continue;
+			}
+
+			// Squeeze on log(f(y)/f(m)), then the Stirling bound
+			final double rho = (k / npq) * ((k * (k / 3.0D + 0.625D) + 0.1666666666666666D) / npq + 0.5D);
+			final double t = -(double) k * k / (2.0D * npq);
+			final double logv = Math.log(v);
+			if (logv < t - rho)
+				return y;
+			if (logv > t + rho)
+				continue;
+
+			final double x1 = y + 1;
+			final double f1 = m + 1;
+			final double z = n + 1 - m;
+			final double w = n - y + 1;
+			final double bound = xm * Math.log(f1 / x1) + (n - m + 0.5D) * Math.log(z / w)
+					+ (y - m) * Math.log(w * p / (x1 * q)) + stirling(f1) + stirling(z)
+					+ stirling(x1) + stirling(w);
+			if (logv <= bound)
+				return y;
+		}
 	}
 
 	public List<T> getEntries() {
 		return Collections.unmodifiableList(items);
 	}
 
-	public int getTotalWeight() {
+	public long getTotalWeight() {
 		return totalWeight;
 	}
 
@@ -31,9 +31,11 @@ public class XorShiftRandom extends Random {
 	
 	/**
 	 * General shared randomizer for when logic needs one in a
-	 * pinch.
+	 * pinch.  Each thread draws from its own stream.
+	 * 
+	 * @see SplitMixRandom#shared
 	 */
-	public static final Random shared = new XorShiftRandom();
+	public static final Random shared = SplitMixRandom.shared;
 
 	private static final long serialVersionUID = 1422228009367463911L;
 	private static Field getSeed = null;
@@ -31,7 +31,7 @@ import org.blockartistry.mod.ThermalRecycling.BlockManager;
 import org.blockartistry.mod.ThermalRecycling.ModLog;
 import org.blockartistry.mod.ThermalRecycling.machines.entity.VendingTileEntity;
 import org.blockartistry.mod.ThermalRecycling.util.FakePlayerHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 import org.blockartistry.mod.ThermalRecycling.world.villager.VillagerProfession;
 
 import net.minecraft.init.Blocks;
@@ -45,7 +45,7 @@ import net.minecraftforge.common.util.ForgeDirection;
 
 public final class VendingVillageStructure extends StructureVillagePieces.Village {
 
-	private static final Random random = XorShiftRandom.shared;
+	private static final Random random = SplitMixRandom.shared;
 	private static final int HEIGHT = 4;
 	private static final int WIDTH = 5;
 	private static final int LENGTH = 3;
@@ -30,7 +30,7 @@ import java.util.Random;
 import org.blockartistry.mod.ThermalRecycling.ModLog;
 import org.blockartistry.mod.ThermalRecycling.ModOptions;
 import org.blockartistry.mod.ThermalRecycling.util.DyeHelper;
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 import org.blockartistry.mod.ThermalRecycling.world.FantasyIsland;
 import org.blockartistry.mod.ThermalRecycling.world.villager.VillagerProfessionWeightTable.VillagerProfessionItem;
 
@@ -43,7 +43,7 @@ import net.minecraft.village.MerchantRecipeList;
 
 public class VillagerProfession {
 
-	protected static final Random random = XorShiftRandom.shared;
+	protected static final Random random = SplitMixRandom.shared;
 	private static final String VENDO_FORMAT = StatCollector.translateToLocal("msg.VendoFormat");
 	protected static final VillagerProfessionWeightTable professions = new VillagerProfessionWeightTable();
 
@@ -26,7 +26,7 @@ package org.blockartistry.mod.ThermalRecycling.world.villager;
 
 import java.util.Random;
 
-import org.blockartistry.mod.ThermalRecycling.util.XorShiftRandom;
+import org.blockartistry.mod.ThermalRecycling.util.SplitMixRandom;
 
 import net.minecraft.block.Block;
 import net.minecraft.init.Items;
@@ -35,7 +35,7 @@ import net.minecraft.item.ItemStack;
 
 public class VillagerTrade {
 	
-	private static final Random random = XorShiftRandom.shared;
+	private static final Random random = SplitMixRandom.shared;
 
 	private Item want1;
 	private int meta1;